@@ -1,9 +1,11 @@
 package com.example.boot2;
 
+import com.example.boot2.bulkhead.BulkheadFullException;
 import com.example.boot2.domain.Status;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -36,4 +38,18 @@ public class BasicControllerAdvice extends ResponseEntityExceptionHandler {
         .status(HttpStatus.PRECONDITION_FAILED)
         .body(new Status(false, Optional.of(th.getMessage())));
   }
+
+  /**
+   * Deals with a controller's bulkhead being full, the caller should back off and retry.
+   */
+  @ResponseBody
+  @ExceptionHandler(BulkheadFullException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ResponseEntity<Status> handlerBulkheadFull(HttpServletRequest request,
+                                                    BulkheadFullException ex) {
+    return ResponseEntity
+        .status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(new Status(false, Optional.of(ex.getMessage())));
+  }
 }
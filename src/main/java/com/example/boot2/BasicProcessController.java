@@ -1,11 +1,17 @@
 package com.example.boot2;
 
+import com.example.boot2.bulkhead.Bulkhead;
 import com.example.boot2.domain.Status;
-import com.example.boot2.domain.UserIdentifierValidator;
+import com.example.boot2.index.IndexedValidator;
+import com.example.boot2.monitoring.SaturationMonitor;
+import com.example.boot2.shadow.ShadowEvaluation;
 import com.example.boot2.util.Delay;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import java.time.Duration;
 import javax.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,11 +28,30 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 public class BasicProcessController {
 
+  static final int USER_IDENTIFIER_MIN_LENGTH = 2;
+  static final int USER_IDENTIFIER_MAX_LENGTH = 30;
+
   private final RequestProcessor requestProcessor;
 
-  public BasicProcessController(UserIdentifierValidator userIdentifierValidator) {
-    requestProcessor =
-        new RequestProcessor(new Delay<>(10000000, userIdentifierValidator));
+  private final Bulkhead bulkhead;
+
+  /**
+   * Create the controller, each response is padded out to 'validation.padding'; the padding
+   * and admission wait are reported to the saturation monitor.
+   * Requests are run within this controller's own bulkhead.
+   * Results are passed on for shadow evaluation of any candidate validator.
+   * Known user identifiers are answered from the verdict index, before the cache.
+   */
+  public BasicProcessController(IndexedValidator userIdentifierValidator,
+                                SaturationMonitor saturationMonitor,
+                                @Qualifier("statusBulkhead") Bulkhead bulkhead,
+                                ShadowEvaluation shadowEvaluation,
+                                @Value("${validation.padding:10ms}") Duration padding) {
+    this.bulkhead = bulkhead;
+    requestProcessor = new RequestProcessor(
+        new Delay<>(padding.toNanos(), userIdentifierValidator, saturationMonitor.paddingDepth()),
+        saturationMonitor::processingStarted,
+        shadowEvaluation.forEndpoint("status"));
   }
 
   /**
@@ -36,8 +61,10 @@ public class BasicProcessController {
   @GetMapping("/status/{userIdentifier}")
   public ResponseEntity<Status> checkInputValueStatus(
       @Parameter(description = "The 'user identifier' to be checked")
-      @PathVariable("userIdentifier") @Size(min = 2, max = 30) String userIdentifier) {
+      @PathVariable("userIdentifier")
+      @Size(min = USER_IDENTIFIER_MIN_LENGTH, max = USER_IDENTIFIER_MAX_LENGTH)
+      String userIdentifier) {
 
-    return requestProcessor.apply(userIdentifier);
+    return bulkhead.call(() -> requestProcessor.apply(userIdentifier));
   }
 }
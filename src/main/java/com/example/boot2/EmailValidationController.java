@@ -1,11 +1,17 @@
 package com.example.boot2;
 
+import com.example.boot2.bulkhead.Bulkhead;
 import com.example.boot2.domain.EmailValidator;
 import com.example.boot2.domain.Status;
+import com.example.boot2.monitoring.SaturationMonitor;
+import com.example.boot2.shadow.ShadowEvaluation;
 import com.example.boot2.util.Delay;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import java.time.Duration;
 import javax.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,8 +30,24 @@ public class EmailValidationController {
 
   private final RequestProcessor requestProcessor;
 
-  public EmailValidationController(EmailValidator emailValidator) {
-    requestProcessor = new RequestProcessor(new Delay<>(10000000, emailValidator));
+  private final Bulkhead bulkhead;
+
+  /**
+   * Create the controller, each response is padded out to 'validation.padding'; the padding
+   * and admission wait are reported to the saturation monitor.
+   * Requests are run within this controller's own bulkhead.
+   * Results are passed on for shadow evaluation of any candidate validator.
+   */
+  public EmailValidationController(EmailValidator emailValidator,
+                                   SaturationMonitor saturationMonitor,
+                                   @Qualifier("emailBulkhead") Bulkhead bulkhead,
+                                   ShadowEvaluation shadowEvaluation,
+                                   @Value("${validation.padding:10ms}") Duration padding) {
+    this.bulkhead = bulkhead;
+    requestProcessor = new RequestProcessor(
+        new Delay<>(padding.toNanos(), emailValidator, saturationMonitor.paddingDepth()),
+        saturationMonitor::processingStarted,
+        shadowEvaluation.forEndpoint("email"));
   }
 
   /**
@@ -37,6 +59,6 @@ public class EmailValidationController {
       @Parameter(description = "The 'email address' to be checked") @PathVariable("emailAddress")
       @NotBlank String emailAddress) {
 
-    return requestProcessor.apply(emailAddress);
+    return bulkhead.call(() -> requestProcessor.apply(emailAddress));
   }
 }
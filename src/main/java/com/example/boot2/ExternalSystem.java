@@ -1,8 +1,18 @@
 package com.example.boot2;
 
+import com.example.boot2.domain.Status;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Designed to check how conditional beans can be created in production and test.
+ * Calls to the external system are non-blocking; use ExternalSystemClient to call it with
+ * a timeout, hedging and a circuit breaker.
  */
 public interface ExternalSystem {
   String getExternalSystemName();
+
+  /**
+   * Ask the external system about the value, the future completes with its verdict.
+   */
+  CompletableFuture<Status> call(String value);
 }
@@ -0,0 +1,86 @@
+package com.example.boot2;
+
+import com.example.boot2.domain.Status;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * A local stand-in for the external system, with a configurable latency distribution and
+ * injected failures; so tail latency (and what the ExternalSystemClient does about it) can be
+ * tried out without the real thing.
+ * Latencies are log-normal, set by the median and the p99. A 'failure-rate' share of calls
+ * fail and a 'stall-rate' share never answer at all.
+ */
+@Service
+@ConditionalOnProperty(name = "external.system", havingValue = "local")
+public class LocalExternalSystem implements ExternalSystem, Closeable {
+
+  private static final double Z_99 = 2.3263;
+
+  private final double medianNanoSeconds;
+  private final double sigma;
+  private final double failureRate;
+  private final double stallRate;
+  private final ScheduledThreadPoolExecutor scheduler;
+
+  /**
+   * Create the stand-in with the latency distribution and failures to inject.
+   */
+  public LocalExternalSystem(
+      @Value("${external.local.median-latency:5ms}") Duration medianLatency,
+      @Value("${external.local.p99-latency:50ms}") Duration p99Latency,
+      @Value("${external.local.failure-rate:0.0}") double failureRate,
+      @Value("${external.local.stall-rate:0.0}") double stallRate) {
+    if (p99Latency.compareTo(medianLatency) < 0) {
+      throw new IllegalArgumentException("p99 latency must not be less than the median");
+    }
+    this.medianNanoSeconds = medianLatency.toNanos();
+    this.sigma = Math.log((double) p99Latency.toNanos() / Math.max(1, medianLatency.toNanos()))
+        / Z_99;
+    this.failureRate = failureRate;
+    this.stallRate = stallRate;
+
+    var threadFactory = new CustomizableThreadFactory("local-external-");
+    threadFactory.setDaemon(true);
+    this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+  }
+
+  @Override
+  public String getExternalSystemName() {
+    return "Local";
+  }
+
+  @Override
+  public CompletableFuture<Status> call(String value) {
+    var random = ThreadLocalRandom.current();
+    var result = new CompletableFuture<Status>();
+    var outcome = random.nextDouble();
+    if (outcome < stallRate) {
+      return result;
+    }
+    var latency = (long) (medianNanoSeconds * Math.exp(sigma * random.nextGaussian()));
+    var fail = outcome < stallRate + failureRate;
+    scheduler.schedule(() -> {
+      if (fail) {
+        result.completeExceptionally(new IllegalStateException("Injected failure"));
+      } else {
+        result.complete(new Status(true, Optional.empty()));
+      }
+    }, latency, TimeUnit.NANOSECONDS);
+    return result;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
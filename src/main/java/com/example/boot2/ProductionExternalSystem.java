@@ -1,5 +1,8 @@
 package com.example.boot2;
 
+import com.example.boot2.domain.Status;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
@@ -13,4 +16,12 @@ public class ProductionExternalSystem implements ExternalSystem {
   public String getExternalSystemName() {
     return "Production";
   }
+
+  /**
+   * There is no real external dependency yet, so everything is acceptable.
+   */
+  @Override
+  public CompletableFuture<Status> call(String value) {
+    return CompletableFuture.completedFuture(new Status(true, Optional.empty()));
+  }
 }
@@ -1,6 +1,7 @@
 package com.example.boot2;
 
 import com.example.boot2.domain.Status;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,17 +9,45 @@ import org.springframework.http.ResponseEntity;
 /**
  * Just processes the incoming value using a validator function.
  * Wraps the function call and maps to a ResponseEntity with Ok status.
+ * The 'onProcessingStarted' hook is run just before the function, i.e. when the request stops
+ * waiting and starts being worked on. The 'onResult' hook is given the value and the result,
+ * it must not do any real work on the request thread.
  */
 public class RequestProcessor implements Function<String, ResponseEntity<Status>> {
 
   private final Function<String, Status> wrapperFunction;
 
+  private final Runnable onProcessingStarted;
+
+  private final BiConsumer<String, Status> onResult;
+
   public RequestProcessor(Function<String, Status> wrapperFunction) {
+    this(wrapperFunction, () -> {
+    });
+  }
+
+  public RequestProcessor(Function<String, Status> wrapperFunction,
+                          Runnable onProcessingStarted) {
+    this(wrapperFunction, onProcessingStarted, (value, status) -> {
+    });
+  }
+
+  /**
+   * Processor with hooks for when processing starts and when the result is known.
+   */
+  public RequestProcessor(Function<String, Status> wrapperFunction,
+                          Runnable onProcessingStarted,
+                          BiConsumer<String, Status> onResult) {
     this.wrapperFunction = wrapperFunction;
+    this.onProcessingStarted = onProcessingStarted;
+    this.onResult = onResult;
   }
 
   @Override
   public ResponseEntity<Status> apply(String value) {
-    return ResponseEntity.status(HttpStatus.OK).body(wrapperFunction.apply(value));
+    onProcessingStarted.run();
+    var status = wrapperFunction.apply(value);
+    onResult.accept(value, status);
+    return ResponseEntity.status(HttpStatus.OK).body(status);
   }
 }
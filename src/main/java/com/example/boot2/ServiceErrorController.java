@@ -1,28 +1,72 @@
 package com.example.boot2;
 
+import com.example.boot2.util.RateLimitedLogger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Pattern;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.error.ErrorController;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 /**
  * Designed to provide a little more information to the caller in the event of an error.
+ * The error page has no dynamic content, so it is read once and sent as is, rather than
+ * rendering the template for every error. Logging is rate limited, so a flood of bad requests
+ * does not turn into a flood of log messages.
+ * When the Swagger UI is turned off (i.e. the 'production' profile) its link is taken out of the
+ * page, so the page never points at a URL that is not there.
  */
 @Controller
 public class ServiceErrorController implements ErrorController {
 
+  //The line break before the link goes too, so no trailing break is left behind.
+  private static final Pattern HUMAN_API_DOCS_LINK =
+      Pattern.compile("\\s*<br/>\\s*<a href=\"/api-ui.html\">[^<]*</a>");
+
   private final Logger logger = LoggerFactory.getLogger(ServiceErrorController.class);
 
+  private final RateLimitedLogger errorLogger =
+      new RateLimitedLogger(logger, Duration.ofSeconds(10), 10);
+
+  private final byte[] errorPage;
+
+  /**
+   * Loads the error page ready to be sent, without the Swagger UI link if that is turned off.
+   */
+  public ServiceErrorController(
+      @Value("${springdoc.swagger-ui.enabled:true}") boolean swaggerUiEnabled) {
+    try (var errorPageStream = new ClassPathResource("templates/error.html").getInputStream()) {
+      var page = StreamUtils.copyToString(errorPageStream, StandardCharsets.UTF_8);
+      if (!swaggerUiEnabled) {
+        page = HUMAN_API_DOCS_LINK.matcher(page).replaceAll("");
+      }
+      errorPage = page.getBytes(StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
   /**
    * Handles any errors and maps through to an error page.
    */
   @RequestMapping("/error")
-  public String handleError(HttpServletRequest request) {
+  public ResponseEntity<byte[]> handleError(HttpServletRequest request) {
     Object status = request.getAttribute(RequestDispatcher.ERROR_STATUS_CODE);
-    logger.error("WebService Error {}", status);
-    return "error";
+    errorLogger.error("WebService Error {}", status);
+    var statusCode = status instanceof Integer code ? code
+        : HttpStatus.INTERNAL_SERVER_ERROR.value();
+    return ResponseEntity.status(statusCode).contentType(MediaType.TEXT_HTML).body(errorPage);
   }
 }
@@ -0,0 +1,121 @@
+package com.example.boot2;
+
+import com.example.boot2.domain.Status;
+import com.example.boot2.util.RateLimitedLogger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Rejects obviously malformed values (too short, too long or blank) before they get anywhere
+ * near the controllers.
+ * The '@Size' and '@NotBlank' checks on the controllers still apply, but going that way creates
+ * a ConstraintViolationException (with a full stack trace) for every bad request. When flooded
+ * with junk that costs more than dealing with good requests.
+ * The response bodies are created once up front and are the same as BasicControllerAdvice sends.
+ * Runs just before the PriorityFilter, so malformed requests never wait for a turn.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "validation.fast-path.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class ValidationFastPathFilter extends OncePerRequestFilter {
+
+  private static final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+  private final RateLimitedLogger rejectionLogger = new RateLimitedLogger(
+      LoggerFactory.getLogger(ValidationFastPathFilter.class), Duration.ofSeconds(10), 10);
+
+  private final List<FastPathRule> rules;
+
+  /**
+   * Create the filter with precomputed rejection bodies.
+   */
+  public ValidationFastPathFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+
+    final Predicate<String> userIdentifierMalformed = userIdentifier ->
+        userIdentifier.length() < BasicProcessController.USER_IDENTIFIER_MIN_LENGTH
+            || userIdentifier.length() > BasicProcessController.USER_IDENTIFIER_MAX_LENGTH;
+
+    rules = List.of(
+        new FastPathRule("/status/", userIdentifierMalformed,
+            rejectionBody(objectMapper,
+                "checkInputValueStatus.userIdentifier: size must be between "
+                    + BasicProcessController.USER_IDENTIFIER_MIN_LENGTH + " and "
+                    + BasicProcessController.USER_IDENTIFIER_MAX_LENGTH),
+            rejectionCounter(meterRegistry, "status")),
+        new FastPathRule("/email/", String::isBlank,
+            rejectionBody(objectMapper, "checkEmailAddress.emailAddress: must not be blank"),
+            rejectionCounter(meterRegistry, "email")));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+
+    var path = urlPathHelper.getPathWithinApplication(request);
+    for (FastPathRule rule : rules) {
+      if (rule.rejects(path)) {
+        rule.rejections().increment();
+        rejectionLogger.warn("Rejected malformed request for {}", rule.pathPrefix());
+        response.setStatus(HttpStatus.PRECONDITION_FAILED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rule.rejectionBody().length);
+        response.getOutputStream().write(rule.rejectionBody());
+        return;
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private static byte[] rejectionBody(ObjectMapper objectMapper, String reason) {
+    try {
+      return objectMapper.writeValueAsBytes(new Status(false, Optional.of(reason)));
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static Counter rejectionCounter(MeterRegistry meterRegistry, String endpoint) {
+    return Counter.builder("validation.fastpath.rejections")
+        .tag("endpoint", endpoint)
+        .description("Requests rejected as malformed before reaching the controller")
+        .register(meterRegistry);
+  }
+
+  /**
+   * A single path variable following 'pathPrefix' is rejected if 'malformed' is true.
+   * Anything else (no value, more path segments) is left for the controllers to deal with.
+   */
+  private record FastPathRule(String pathPrefix, Predicate<String> malformed,
+                              byte[] rejectionBody, Counter rejections) {
+
+    boolean rejects(String path) {
+      if (!path.startsWith(pathPrefix) || path.length() == pathPrefix.length()
+          || path.indexOf('/', pathPrefix.length()) >= 0) {
+        return false;
+      }
+      return malformed.test(path.substring(pathPrefix.length()));
+    }
+  }
+}
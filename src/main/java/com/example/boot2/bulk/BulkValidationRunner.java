@@ -0,0 +1,86 @@
+package com.example.boot2.bulk;
+
+import com.example.boot2.domain.EmailValidator;
+import com.example.boot2.domain.UserIdentifierValidator;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a bulk validation of a file instead of serving HTTP requests.
+ * Use the 'bulk' profile, for example:
+ * <pre>
+ *   java -jar boot2.jar --spring.profiles.active=bulk --bulk.type=email \
+ *     --bulk.input=emails.txt --bulk.output=verdicts.txt
+ * </pre>
+ * The same rules as the HTTP endpoints are used, but without the caching, logging or padding.
+ */
+@Component
+@ConditionalOnProperty(name = "bulk.enabled", havingValue = "true")
+public class BulkValidationRunner implements ApplicationRunner {
+
+  private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+  private final Logger logger = LoggerFactory.getLogger(BulkValidationRunner.class);
+
+  private final EmailValidator emailValidator;
+  private final UserIdentifierValidator userIdentifierValidator;
+  private final String type;
+  private final Path input;
+  private final Path output;
+  private final int parallelism;
+  private final long segmentSize;
+
+  /**
+   * Create the runner for the type of validation (email or status) and the files to use.
+   * The segments must fit in a single mapping, i.e. 'bulk.segment-megabytes' is at most 2047.
+   */
+  public BulkValidationRunner(EmailValidator emailValidator,
+                              UserIdentifierValidator userIdentifierValidator,
+                              @Value("${bulk.type}") String type,
+                              @Value("${bulk.input}") String input,
+                              @Value("${bulk.output}") String output,
+                              @Value("${bulk.parallelism:0}") int parallelism,
+                              @Value("${bulk.segment-megabytes:16}") int segmentMegaBytes) {
+    this.emailValidator = emailValidator;
+    this.userIdentifierValidator = userIdentifierValidator;
+    this.type = type;
+    this.input = Path.of(input);
+    this.output = Path.of(output);
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    if (segmentMegaBytes < 1 || segmentMegaBytes * BYTES_IN_MEGABYTE
+        > BulkValidator.MAX_SEGMENT_SIZE) {
+      throw new IllegalArgumentException("bulk.segment-megabytes must be between 1 and "
+          + BulkValidator.MAX_SEGMENT_SIZE / BYTES_IN_MEGABYTE + ", not " + segmentMegaBytes);
+    }
+    this.segmentSize = segmentMegaBytes * BYTES_IN_MEGABYTE;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    var validator = switch (type) {
+      case "email" -> emailValidator.delegateValidator();
+      case "status" -> userIdentifierValidator.delegateValidator();
+      default -> throw new IllegalArgumentException(
+          "bulk.type must be 'email' or 'status', not '" + type + "'");
+    };
+
+    logger.info("Bulk {} validation of {} to {} using {} threads", type, input, output,
+        parallelism);
+    var pool = new ForkJoinPool(parallelism);
+    try {
+      var result = new BulkValidator(validator, pool, segmentSize).validate(input, output);
+      logger.info("Validated {} lines ({} acceptable) in {} ms, {} lines/s, {} MB/s",
+          result.lines(), result.acceptable(), result.elapsed().toMillis(),
+          Math.round(result.linesPerSecond()), Math.round(result.megaBytesPerSecond()));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.example.boot2.bulk;
+
+import com.example.boot2.domain.ValueValidator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Validates every line of a (possibly very large) file, writing a verdict for each line.
+ * The input is memory mapped and split into segments on line boundaries, the segments are
+ * validated in parallel on a fork-join pool and the verdicts written out in the input order.
+ * Each output line is the input line, a tab and then 'true' or 'false'.
+ * Only a few segments per worker are in flight at any time, so memory use stays bounded
+ * however big the file is.
+ * A segment is mapped in one go, so it can be at most 2GB (Integer.MAX_VALUE bytes); a file with
+ * a line too long to fit in a segment that size is rejected.
+ */
+public class BulkValidator {
+
+  private static final byte NEW_LINE = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+  private static final byte[] ACCEPTABLE = "\ttrue\n".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] UNACCEPTABLE = "\tfalse\n".getBytes(StandardCharsets.UTF_8);
+  private static final int SEGMENTS_IN_FLIGHT_PER_WORKER = 2;
+  private static final int BOUNDARY_SEARCH_SIZE = 4096;
+
+  /**
+   * The largest segment that can be mapped.
+   */
+  public static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final ValueValidator validator;
+  private final ForkJoinPool pool;
+  private final long segmentSize;
+  private final long maxSegmentSize;
+
+  /**
+   * Create a bulk validator, that uses the pool to validate segments of about 'segmentSize'.
+   */
+  public BulkValidator(final ValueValidator validator, final ForkJoinPool pool,
+                       final long segmentSize) {
+    this(validator, pool, segmentSize, MAX_SEGMENT_SIZE);
+  }
+
+  BulkValidator(final ValueValidator validator, final ForkJoinPool pool,
+                final long segmentSize, final long maxSegmentSize) {
+    if (segmentSize < 1) {
+      throw new IllegalArgumentException("segment size must be greater than 0");
+    }
+    if (segmentSize > maxSegmentSize) {
+      throw new IllegalArgumentException(
+          "segment size must be at most " + maxSegmentSize + " bytes");
+    }
+    this.validator = validator;
+    this.pool = pool;
+    this.segmentSize = segmentSize;
+    this.maxSegmentSize = maxSegmentSize;
+  }
+
+  /**
+   * Validate each line in the input file and write the verdicts to the output file.
+   */
+  public BulkResult validate(final Path input, final Path output) throws IOException {
+    long startTime = System.nanoTime();
+    long lines = 0;
+    long acceptable = 0;
+
+    try (var in = FileChannel.open(input, StandardOpenOption.READ);
+         var out = FileChannel.open(output, StandardOpenOption.CREATE,
+             StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+      Deque<ForkJoinTask<SegmentResult>> inFlight = new ArrayDeque<>();
+      var maxInFlight = pool.getParallelism() * SEGMENTS_IN_FLIGHT_PER_WORKER;
+
+      for (Segment segment : segments(in)) {
+        inFlight.add(pool.submit(() -> validate(in, segment)));
+        if (inFlight.size() >= maxInFlight) {
+          var result = inFlight.poll().join();
+          write(out, result);
+          lines += result.lines();
+          acceptable += result.acceptable();
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        var result = inFlight.poll().join();
+        write(out, result);
+        lines += result.lines();
+        acceptable += result.acceptable();
+      }
+
+      return new BulkResult(lines, acceptable, in.size(),
+          Duration.ofNanos(System.nanoTime() - startTime));
+    }
+  }
+
+  /**
+   * Split the file into segments of about 'segmentSize', each ending just after a new line
+   * (or at the end of the file). Fails if a line is too long to fit in a segment that can be
+   * mapped.
+   */
+  List<Segment> segments(final FileChannel in) throws IOException {
+    List<Segment> segments = new ArrayList<>();
+    var size = in.size();
+    var buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_SIZE);
+    long start = 0;
+    while (start < size) {
+      var end = Math.min(start + segmentSize, size);
+      end = end == size ? size : nextLineStart(in, end, buffer);
+      if (end - start > maxSegmentSize) {
+        throw new IllegalArgumentException("line near byte " + start + " is too long, the "
+            + "segment would be " + (end - start) + " bytes, at most " + maxSegmentSize
+            + " can be mapped");
+      }
+      segments.add(new Segment(start, end));
+      start = end;
+    }
+    return segments;
+  }
+
+  private static long nextLineStart(final FileChannel in, final long from,
+                                    final ByteBuffer buffer) throws IOException {
+    var position = from;
+    while (true) {
+      buffer.clear();
+      var read = in.read(buffer, position);
+      if (read <= 0) {
+        return in.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == NEW_LINE) {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+  }
+
+  private SegmentResult validate(final FileChannel in, final Segment segment) {
+    try {
+      var mapped = in.map(FileChannel.MapMode.READ_ONLY, segment.start(), segment.length());
+      //Room for the verdicts too, without going past the largest array.
+      var verdicts = new ByteArrayOutputStream(
+          (int) Math.min(segment.length() + segment.length() / 2, Integer.MAX_VALUE - 8));
+      var line = new byte[256];
+      long lines = 0;
+      long acceptable = 0;
+
+      while (mapped.hasRemaining()) {
+        var length = 0;
+        byte value;
+        while (mapped.hasRemaining() && (value = mapped.get()) != NEW_LINE) {
+          if (length == line.length) {
+            line = Arrays.copyOf(line, line.length * 2);
+          }
+          line[length++] = value;
+        }
+        if (length > 0 && line[length - 1] == CARRIAGE_RETURN) {
+          length--;
+        }
+
+        var isAcceptable =
+            validator.validate(new String(line, 0, length, StandardCharsets.UTF_8)).get()
+                .acceptable();
+        verdicts.write(line, 0, length);
+        verdicts.write(isAcceptable ? ACCEPTABLE : UNACCEPTABLE, 0,
+            isAcceptable ? ACCEPTABLE.length : UNACCEPTABLE.length);
+        lines++;
+        acceptable += isAcceptable ? 1 : 0;
+      }
+      return new SegmentResult(verdicts.toByteArray(), lines, acceptable);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void write(final FileChannel out, final SegmentResult result)
+      throws IOException {
+    var buffer = ByteBuffer.wrap(result.verdicts());
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  /**
+   * A part of the input file, from 'start' (inclusive) to 'end' (exclusive).
+   */
+  record Segment(long start, long end) {
+    long length() {
+      return end - start;
+    }
+  }
+
+  private record SegmentResult(byte[] verdicts, long lines, long acceptable) {
+  }
+
+  /**
+   * The outcome of a bulk validation run, with the throughput achieved.
+   */
+  public record BulkResult(long lines, long acceptable, long bytes, Duration elapsed) {
+
+    /**
+     * Lines validated per second.
+     */
+    public double linesPerSecond() {
+      return lines / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+    }
+
+    /**
+     * Megabytes of input validated per second.
+     */
+    public double megaBytesPerSecond() {
+      return bytes / (1024.0 * 1024.0) / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+    }
+  }
+}
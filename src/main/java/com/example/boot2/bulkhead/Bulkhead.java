@@ -0,0 +1,132 @@
+package com.example.boot2.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many requests for one endpoint can be worked on at the same time.
+ * Up to 'maxConcurrent' calls run, up to 'maxQueued' more wait (for at most 'timeout') and
+ * anything beyond that is rejected straight away with a BulkheadFullException.
+ * So a burst of traffic on one endpoint cannot use up all the worker threads of the other.
+ */
+public class Bulkhead implements MeterBinder {
+
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final long timeoutNanoSeconds;
+
+  private final Semaphore permits;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder rejections = new LongAdder();
+  private volatile Timer waitTimer;
+
+  /**
+   * Create a named bulkhead with the limits supplied.
+   */
+  public Bulkhead(final String name, final int maxConcurrent, final int maxQueued,
+                  final Duration timeout) {
+    if (maxConcurrent < 1 || maxQueued < 0) {
+      throw new IllegalArgumentException(
+          "max concurrent must be greater than 0 and max queued must not be negative");
+    }
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+    this.timeoutNanoSeconds = timeout.toNanos();
+    this.permits = new Semaphore(maxConcurrent, true);
+  }
+
+  /**
+   * Run the call within the bulkhead, or throw BulkheadFullException if there is no room.
+   */
+  public <T> T call(final Supplier<T> call) {
+    acquire();
+    try {
+      return call.get();
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void acquire() {
+    if (permits.tryAcquire()) {
+      return;
+    }
+
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      reject();
+    }
+    long startTime = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(timeoutNanoSeconds, TimeUnit.NANOSECONDS)) {
+        reject();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      reject();
+    } finally {
+      queued.decrementAndGet();
+      if (waitTimer != null) {
+        waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private void reject() {
+    rejections.increment();
+    throw new BulkheadFullException(name);
+  }
+
+  /**
+   * The number of calls currently running within the bulkhead.
+   */
+  public int active() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  /**
+   * The number of calls currently waiting to get into the bulkhead.
+   */
+  public int queued() {
+    return queued.get();
+  }
+
+  /**
+   * The most worker threads the bulkhead can hold at once, running or waiting.
+   */
+  public int maxThreads() {
+    return maxConcurrent + maxQueued;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("bulkhead.utilization", this, bulkhead -> (double) bulkhead.active()
+            / bulkhead.maxConcurrent)
+        .tag("bulkhead", name)
+        .description("Calls running as a fraction of the maximum allowed")
+        .register(registry);
+    Gauge.builder("bulkhead.queued", this, Bulkhead::queued)
+        .tag("bulkhead", name)
+        .description("Calls waiting to get into the bulkhead")
+        .register(registry);
+    FunctionCounter.builder("bulkhead.rejections", rejections, LongAdder::sum)
+        .tag("bulkhead", name)
+        .description("Calls rejected because the bulkhead was full")
+        .register(registry);
+    waitTimer = Timer.builder("bulkhead.wait")
+        .tag("bulkhead", name)
+        .description("Time calls waited to get into the bulkhead")
+        .register(registry);
+  }
+}
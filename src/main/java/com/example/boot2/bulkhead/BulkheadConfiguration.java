@@ -0,0 +1,55 @@
+package com.example.boot2.bulkhead;
+
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A separate bulkhead for each controller, each sized by its own properties.
+ * A call waiting in a bulkhead still holds its Tomcat worker thread, so between them the
+ * bulkheads (max-concurrent plus max-queued for each) must hold fewer threads than
+ * server.tomcat.threads.max. Otherwise one endpoint can fill its bulkhead while the other's
+ * requests wait in Tomcat for a worker thread, which is what the bulkheads are there to stop.
+ * The defaults, 60 + 30 for each of the two endpoints, hold 180 of the 200 threads; leaving
+ * room for the actuator and documentation.
+ */
+@Configuration
+public class BulkheadConfiguration {
+
+  private final Logger logger = LoggerFactory.getLogger(BulkheadConfiguration.class);
+
+  @Bean
+  Bulkhead emailBulkhead(@Value("${bulkhead.email.max-concurrent:60}") int maxConcurrent,
+                         @Value("${bulkhead.email.max-queued:30}") int maxQueued,
+                         @Value("${bulkhead.email.timeout:100ms}") Duration timeout) {
+    return new Bulkhead("email", maxConcurrent, maxQueued, timeout);
+  }
+
+  @Bean
+  Bulkhead statusBulkhead(@Value("${bulkhead.status.max-concurrent:60}") int maxConcurrent,
+                          @Value("${bulkhead.status.max-queued:30}") int maxQueued,
+                          @Value("${bulkhead.status.timeout:100ms}") Duration timeout) {
+    return new Bulkhead("status", maxConcurrent, maxQueued, timeout);
+  }
+
+  /**
+   * Warn at startup if the bulkheads can hold all the Tomcat worker threads.
+   */
+  @Bean
+  SmartInitializingSingleton bulkheadSizeCheck(
+      List<Bulkhead> bulkheads, @Value("${server.tomcat.threads.max:200}") int workerThreads) {
+    return () -> {
+      var held = bulkheads.stream().mapToInt(Bulkhead::maxThreads).sum();
+      if (held >= workerThreads) {
+        logger.warn("The bulkheads can hold {} worker threads, but Tomcat only has {}; "
+            + "reduce bulkhead.*.max-concurrent/max-queued or raise server.tomcat.threads.max",
+            held, workerThreads);
+      }
+    };
+  }
+}
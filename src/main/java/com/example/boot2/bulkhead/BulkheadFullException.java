@@ -0,0 +1,12 @@
+package com.example.boot2.bulkhead;
+
+/**
+ * Thrown when a bulkhead has no room for another call.
+ * There is no stack trace, it is expected under load and is just mapped to a response.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+  public BulkheadFullException(String bulkheadName) {
+    super("Too many requests for " + bulkheadName + ", try again later", null, false, false);
+  }
+}
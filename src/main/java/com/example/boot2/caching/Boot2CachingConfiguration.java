@@ -1,13 +1,16 @@
 package com.example.boot2.caching;
 
 import com.hazelcast.com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,10 +18,21 @@ import org.springframework.context.annotation.Configuration;
 /**
  * The caching configuration for this application.
  * Controls which cache names are to be used and also the size and life of those maps.
+ * Each cache also tracks its hottest keys, see CacheInsightEndpoint.
  */
 @Configuration
 @EnableCaching
 public class Boot2CachingConfiguration extends CachingConfigurerSupport {
+
+  private final int topK;
+  private final Duration halfLife;
+
+  public Boot2CachingConfiguration(@Value("${cache.insight.top-k:10}") int topK,
+                                   @Value("${cache.insight.half-life:1m}") Duration halfLife) {
+    this.topK = topK;
+    this.halfLife = halfLife;
+  }
+
   @Bean
   @Override
   public CacheManager cacheManager() {
@@ -26,13 +40,27 @@ public class Boot2CachingConfiguration extends CachingConfigurerSupport {
 
       @Override
       protected Cache createConcurrentMapCache(final String name) {
-        return new ConcurrentMapCache(name,
+        return new InstrumentedCache(name,
             CacheBuilder.newBuilder().expireAfterWrite(10, TimeUnit.SECONDS).maximumSize(10000)
-                .build().asMap(), false);
+                .recordStats().build(), trafficDimensions(name));
       }
     };
 
     cacheManager.setCacheNames(Arrays.asList("email", "status"));
     return cacheManager;
   }
-}
\ No newline at end of file
+
+  private List<InstrumentedCache.TrafficDimension> trafficDimensions(final String name) {
+    List<InstrumentedCache.TrafficDimension> dimensions = new ArrayList<>();
+    dimensions.add(new InstrumentedCache.TrafficDimension("keys", key -> key,
+        new HeavyHitters(topK, halfLife), true));
+
+    if ("email".equals(name)) {
+      dimensions.add(new InstrumentedCache.TrafficDimension("domains", email -> {
+        var at = email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1);
+      }, new HeavyHitters(topK, halfLife), false));
+    }
+    return dimensions;
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.boot2.caching;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to show how each cache is being used.
+ * The size, hit ratio, eviction rate and the approximate hottest keys.
+ * Whole keys are user identifiers and email addresses, so they are reported as pseudonyms; the
+ * email domains are reported as they are.
+ */
+@Component
+@Endpoint(id = "cacheinsight")
+public class CacheInsightEndpoint {
+
+  private final CacheManager cacheManager;
+
+  public CacheInsightEndpoint(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * Insight for all the caches.
+   */
+  @ReadOperation
+  public Map<String, InstrumentedCache.CacheInsight> caches() {
+    Map<String, InstrumentedCache.CacheInsight> insights = new LinkedHashMap<>();
+    for (String name : cacheManager.getCacheNames()) {
+      if (cacheManager.getCache(name) instanceof InstrumentedCache cache) {
+        insights.put(name, cache.insight());
+      }
+    }
+    return insights;
+  }
+
+  /**
+   * Insight for just the named cache, nothing (a 404) if there is no such cache.
+   */
+  @ReadOperation
+  public InstrumentedCache.CacheInsight cache(@Selector String name) {
+    if (cacheManager.getCache(name) instanceof InstrumentedCache cache) {
+      return cache.insight();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.boot2.caching;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate counts of how often keys have been seen, in a fixed amount of memory.
+ * Each key increments one counter in each row, the estimate is the smallest of those counters.
+ * So estimates can be too high (when keys share counters) but never too low.
+ *
+ * Each key is hashed once to 64 bits; each row then mixes that hash with its own seed, so a pair
+ * of keys that share a counter in one row are unlikely to share one in the others.
+ *
+ * Updates are just atomic increments, there is no locking.
+ */
+public class CountMinSketch {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private final int depth;
+  private final int widthMask;
+  private final long[] rowSeeds;
+  private final AtomicLongArray counters;
+
+  /**
+   * Create a sketch with 'depth' rows, each with 'width' counters (rounded up to a power of 2).
+   */
+  public CountMinSketch(final int depth, final int width) {
+    if (depth < 1 || width < 1) {
+      throw new IllegalArgumentException("depth and width must be greater than 0");
+    }
+    var roundedWidth = Integer.highestOneBit(width) == width ? width
+        : Integer.highestOneBit(width) << 1;
+    this.depth = depth;
+    this.widthMask = roundedWidth - 1;
+    this.rowSeeds = new long[depth];
+    for (int row = 0; row < depth; row++) {
+      rowSeeds[row] = mix((row + 1) * GOLDEN_GAMMA);
+    }
+    this.counters = new AtomicLongArray(depth * roundedWidth);
+  }
+
+  /**
+   * Count the key and return its new estimated count.
+   */
+  public long add(final String key) {
+    var hash = hash(key);
+    var estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      var count = counters.incrementAndGet(index(row, hash));
+      estimate = Math.min(estimate, count);
+    }
+    return estimate;
+  }
+
+  /**
+   * The estimated count for the key.
+   */
+  public long estimate(final String key) {
+    var hash = hash(key);
+    var estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.get(index(row, hash)));
+    }
+    return estimate;
+  }
+
+  /**
+   * Halve every counter 'halvings' times, so keys that were hot a while ago make way for the keys
+   * hot now. Each counter is updated atomically, but increments made during the sweep may land
+   * either side of it; for estimates that is close enough.
+   */
+  public void decay(final int halvings) {
+    var shift = Math.min(halvings, Long.SIZE - 1);
+    for (int i = 0; i < counters.length(); i++) {
+      counters.getAndUpdate(i, count -> count >>> shift);
+    }
+  }
+
+  private int index(final int row, final long hash) {
+    return (row * (widthMask + 1)) + (int) (mix(hash ^ rowSeeds[row]) & widthMask);
+  }
+
+  /**
+   * 64-bit FNV-1a over the chars, finished with the murmur3 mix; no bytes are allocated.
+   */
+  private static long hash(final String key) {
+    var hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
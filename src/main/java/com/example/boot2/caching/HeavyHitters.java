@@ -0,0 +1,137 @@
+package com.example.boot2.caching;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate top-K of the most frequently seen keys.
+ * Every key is counted in a Count-Min sketch. A key only joins the (bounded) candidate set when
+ * its estimate first beats the smallest estimate of the current top-K; keys already in the set
+ * are only read, their counts live in the sketch. So once traffic has warmed up the vast
+ * majority of calls, including repeat calls for the hottest keys, only do the sketch's atomic
+ * increments.
+ * When the candidate set grows too big, whichever thread gets there first trims it back to the
+ * top-K (the others just carry on), so no request is ever held up waiting for a trim.
+ *
+ * Every 'halfLife' the counts (and the threshold) are halved, so the top-K reflects what is hot
+ * now rather than what has been hot since startup.
+ *
+ * This is used instead of a space-saving heap. Space-saving updates (and re-heapifies) a shared
+ * structure on every call, which means a lock on the request path; here the hot path is lock
+ * free. The error guarantees differ:
+ * <ul>
+ *   <li>Space-saving with m counters over-counts any key by at most N/m (N lookups), always.</li>
+ *   <li>Here the counts are the sketch's, so a count is never too low, and with probability
+ *   at least 1 - e^-depth (98% for depth 4) it is too high by at most e/width * N
+ *   (0.07% of N for width 4096). N is the lookups since startup, halved every half life.</li>
+ *   <li>Any key whose true count is above the threshold (the K-th count at the last trim) is
+ *   in the candidate set. Keys closer together than that over-count can be reported in the
+ *   wrong order, or swapped in and out of the top-K.</li>
+ * </ul>
+ */
+public class HeavyHitters {
+
+  private static final int SKETCH_DEPTH = 4;
+  private static final int SKETCH_WIDTH = 4096;
+
+  private final int topK;
+  private final int candidateLimit;
+  private final long halfLifeNanoSeconds;
+  private final LongSupplier nanoClock;
+  private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+  private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean maintaining = new AtomicBoolean();
+
+  private volatile long threshold;
+  private volatile long nextDecayNanoTime;
+
+  /**
+   * Track the 'topK' most frequently seen keys, halving the counts every 'halfLife'.
+   */
+  public HeavyHitters(final int topK, final Duration halfLife) {
+    this(topK, halfLife, System::nanoTime);
+  }
+
+  HeavyHitters(final int topK, final Duration halfLife, final LongSupplier nanoClock) {
+    if (topK < 1) {
+      throw new IllegalArgumentException("top K must be greater than 0");
+    }
+    if (halfLife.isNegative() || halfLife.isZero()) {
+      throw new IllegalArgumentException("half life must be greater than 0");
+    }
+    this.topK = topK;
+    this.candidateLimit = topK * 4;
+    this.halfLifeNanoSeconds = halfLife.toNanos();
+    this.nanoClock = nanoClock;
+    this.nextDecayNanoTime = nanoClock.getAsLong() + halfLifeNanoSeconds;
+  }
+
+  /**
+   * Record that the key has been seen.
+   */
+  public void record(final String key) {
+    var estimate = sketch.add(key);
+    var now = nanoClock.getAsLong();
+    if (now - nextDecayNanoTime >= 0 && maintaining.compareAndSet(false, true)) {
+      try {
+        decay(now);
+      } finally {
+        maintaining.set(false);
+      }
+    }
+
+    if (estimate <= threshold || candidates.contains(key)) {
+      return;
+    }
+    candidates.add(key);
+    if (candidates.size() > candidateLimit && maintaining.compareAndSet(false, true)) {
+      try {
+        trim();
+      } finally {
+        maintaining.set(false);
+      }
+    }
+  }
+
+  /**
+   * The hottest keys, hottest first, with their estimated counts.
+   */
+  public List<HotKey> hottest() {
+    return candidates.stream()
+        .map(key -> new HotKey(key, sketch.estimate(key)))
+        .sorted(Comparator.comparingLong(HotKey::estimatedCount).reversed())
+        .limit(topK)
+        .toList();
+  }
+
+  private void trim() {
+    var keep = hottest();
+    candidates.retainAll(keep.stream().map(HotKey::key).collect(Collectors.toSet()));
+    threshold = keep.get(keep.size() - 1).estimatedCount();
+  }
+
+  private void decay(final long now) {
+    //Re-checked now this thread holds the guard, another thread may have just decayed.
+    if (now - nextDecayNanoTime < 0) {
+      return;
+    }
+    //One halving per half life that has passed, however long since anything was recorded.
+    var halvings = (int) Math.min(Long.SIZE,
+        1 + (now - nextDecayNanoTime) / halfLifeNanoSeconds);
+    sketch.decay(halvings);
+    threshold = threshold >>> Math.min(halvings, Long.SIZE - 1);
+    nextDecayNanoTime = now + halfLifeNanoSeconds;
+  }
+
+  /**
+   * A key and how many times it is estimated to have been seen.
+   */
+  public record HotKey(String key, long estimatedCount) {
+  }
+}
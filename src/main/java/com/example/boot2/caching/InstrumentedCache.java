@@ -0,0 +1,136 @@
+package com.example.boot2.caching;
+
+import com.example.boot2.profiling.CacheAccessEvent;
+import com.hazelcast.com.google.common.cache.Cache;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * A ConcurrentMapCache backed by a Guava cache, that also records hits, misses and which keys
+ * (and parts of keys) are looked up the most.
+ * Spring looks up the map view of the Guava cache, and that does not count hits or misses;
+ * so they are counted here. Evictions are counted by the Guava cache itself.
+ * Hot keys of dimensions marked 'pseudonymised' are reported as pseudonyms, not as the real key.
+ */
+public class InstrumentedCache extends ConcurrentMapCache {
+
+  private static final long EVICTION_WINDOW_NANO_SECONDS = Duration.ofMinutes(1).toNanos();
+
+  private final Cache<Object, Object> store;
+  private final List<TrafficDimension> dimensions;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Pseudonyms pseudonyms = new Pseudonyms();
+
+  //The eviction rate is worked out from the older sample, so covers between one and two windows.
+  private EvictionSample olderEvictions = new EvictionSample(System.nanoTime(), 0);
+  private EvictionSample newerEvictions = olderEvictions;
+
+  /**
+   * Create a cache with the name, backed by the store. Each lookup key is recorded against
+   * each of the dimensions.
+   */
+  public InstrumentedCache(final String name, final Cache<Object, Object> store,
+                           final List<TrafficDimension> dimensions) {
+    super(name, store.asMap(), false);
+    this.store = store;
+    this.dimensions = dimensions;
+  }
+
+  @Override
+  protected Object lookup(final Object key) {
+    var event = new CacheAccessEvent();
+    event.begin();
+    var value = super.lookup(key);
+    if (value != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.cache = getName();
+      event.hit = value != null;
+      event.commit();
+    }
+
+    if (key instanceof String keyValue) {
+      for (TrafficDimension dimension : dimensions) {
+        var classified = dimension.classifier().apply(keyValue);
+        if (classified != null) {
+          dimension.heavyHitters().record(classified);
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Point in time view of how the cache is being used.
+   */
+  public CacheInsight insight() {
+    long hitCount = hits.sum();
+    long lookups = hitCount + misses.sum();
+    var evictions = sampleEvictions();
+
+    Map<String, List<HeavyHitters.HotKey>> hottest = new LinkedHashMap<>();
+    dimensions.forEach(dimension -> hottest.put(dimension.name(), hottest(dimension)));
+
+    return new CacheInsight(store.size(), hitCount, lookups - hitCount,
+        lookups == 0 ? 0.0 : (double) hitCount / lookups,
+        evictions.now().evictions(), evictions.perSecond(), evictions.windowSeconds(), hottest);
+  }
+
+  private List<HeavyHitters.HotKey> hottest(final TrafficDimension dimension) {
+    var hottest = dimension.heavyHitters().hottest();
+    if (!dimension.pseudonymised()) {
+      return hottest;
+    }
+    return hottest.stream()
+        .map(hot -> new HeavyHitters.HotKey(pseudonyms.of(hot.key()), hot.estimatedCount()))
+        .toList();
+  }
+
+  private synchronized EvictionWindow sampleEvictions() {
+    var now = new EvictionSample(System.nanoTime(), store.stats().evictionCount());
+    if (now.nanoTime() - newerEvictions.nanoTime() >= EVICTION_WINDOW_NANO_SECONDS) {
+      olderEvictions = newerEvictions;
+      newerEvictions = now;
+    }
+    var elapsedSeconds = Math.max(1.0, (now.nanoTime() - olderEvictions.nanoTime()) / 1e9);
+    return new EvictionWindow(now,
+        (now.evictions() - olderEvictions.evictions()) / elapsedSeconds, elapsedSeconds);
+  }
+
+  private record EvictionSample(long nanoTime, long evictions) {
+  }
+
+  private record EvictionWindow(EvictionSample now, double perSecond, double windowSeconds) {
+  }
+
+  /**
+   * A way of looking at the keys, i.e. the whole key or just the domain part of an email.
+   * The classifier can return null if the key has nothing to record for that dimension.
+   * Set 'pseudonymised' when what the classifier returns identifies a person.
+   */
+  public record TrafficDimension(String name, Function<String, String> classifier,
+                                 HeavyHitters heavyHitters, boolean pseudonymised) {
+  }
+
+  /**
+   * How the cache is being used, including the hottest keys for each dimension.
+   * 'evictions' is the total since startup, 'evictionsPerSecond' the rate over the last
+   * 'evictionRateWindowSeconds' (between one and two minutes once the cache has been up a while
+   * and insight is asked for at least once a minute).
+   */
+  public record CacheInsight(long size, long hits, long misses, double hitRatio,
+                             long evictions, double evictionsPerSecond,
+                             double evictionRateWindowSeconds,
+                             Map<String, List<HeavyHitters.HotKey>> hottest) {
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.boot2.caching;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Replaces keys (user identifiers, email addresses) with short pseudonyms for reporting.
+ * A pseudonym is a truncated HMAC under a key generated at startup and never stored; so the same
+ * key has the same pseudonym for the life of the process (a hot key can still be followed from
+ * one report to the next) but the pseudonym cannot be turned back into the key.
+ */
+final class Pseudonyms {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int PSEUDONYM_BYTES = 6;
+
+  private final SecretKeySpec secret;
+
+  Pseudonyms() {
+    var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    this.secret = new SecretKeySpec(key, ALGORITHM);
+  }
+
+  String of(final String key) {
+    try {
+      //Only called when building a report, so a Mac per call is fine.
+      var mac = Mac.getInstance(ALGORITHM);
+      mac.init(secret);
+      var digest = mac.doFinal(key.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, PSEUDONYM_BYTES);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("unable to pseudonymise key", ex);
+    }
+  }
+}
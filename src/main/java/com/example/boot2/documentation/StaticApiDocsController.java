@@ -0,0 +1,69 @@
+package com.example.boot2.documentation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the OpenAPI documentation generated at build time (see 'generateOpenApiDocs'),
+ * in place of springdoc scanning the controllers and building the model in every pod.
+ * Only used when springdoc is turned off, i.e. with the 'production' profile.
+ * The documents are read once at startup and sent as is.
+ */
+@RestController
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "false")
+public class StaticApiDocsController {
+
+  static final String OPENAPI_YAML_VALUE = "application/vnd.oai.openapi";
+
+  private final byte[] json;
+  private final byte[] yaml;
+
+  /**
+   * Loads the generated documents, these must have been built into the application.
+   */
+  public StaticApiDocsController(
+      @Value("classpath:openapi/api-docs.json") Resource json,
+      @Value("classpath:openapi/api-docs.yaml") Resource yaml) {
+    this.json = load(json);
+    this.yaml = load(yaml);
+  }
+
+  /**
+   * The OpenAPI documentation as JSON.
+   */
+  @GetMapping(value = "${springdoc.api-docs.path:/v3/api-docs}",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> json() {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+  }
+
+  /**
+   * The OpenAPI documentation as YAML.
+   */
+  @GetMapping(value = "${springdoc.api-docs.path:/v3/api-docs}.yaml",
+      produces = OPENAPI_YAML_VALUE)
+  public ResponseEntity<byte[]> yaml() {
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(OPENAPI_YAML_VALUE))
+        .body(yaml);
+  }
+
+  private static byte[] load(final Resource resource) {
+    if (!resource.exists()) {
+      throw new IllegalStateException("No build time OpenAPI documentation " + resource
+          + ", build with 'generateOpenApiDocs'");
+    }
+    try (var stream = resource.getInputStream()) {
+      return StreamUtils.copyToByteArray(stream);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.example.boot2.domain;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A composite of rules that must all pass for a value to be acceptable.
+ * Unlike 'rule.and(rule).and(rule)' the order of evaluation is not fixed. The cost and the
+ * rejection rate of each rule is recorded and every 'reorderInterval' evaluations (counted per
+ * thread, so request threads never contend on a shared counter) the rules are reordered, so that
+ * cheap rules that reject lots of values are run first.
+ *
+ * The rules must be independent of each other (i.e. not rely on an earlier rule to guard them),
+ * then the result is the same whatever the order.
+ */
+public final class AdaptiveRuleSet implements Predicate<String>, MeterBinder {
+
+  private final String name;
+  private final long reorderInterval;
+  private final List<RuleStatistics> rules;
+  private final ThreadLocal<EvaluationCount> evaluations =
+      ThreadLocal.withInitial(EvaluationCount::new);
+  //Only one thread reorders at a time, the others carry on with the current order.
+  private final AtomicBoolean reordering = new AtomicBoolean();
+
+  //Replaced as a whole on reordering, so readers never see a partially sorted array.
+  private volatile RuleStatistics[] evaluationOrder;
+
+  /**
+   * Create a rule set with a name (used in metrics) and the rules in their initial order.
+   */
+  public AdaptiveRuleSet(final String name, final long reorderInterval, final List<Rule> rules) {
+    if (reorderInterval < 1) {
+      throw new IllegalArgumentException("reorder interval must be greater than 0");
+    }
+    this.name = name;
+    this.reorderInterval = reorderInterval;
+    this.rules = rules.stream().map(RuleStatistics::new).toList();
+    this.evaluationOrder = this.rules.toArray(new RuleStatistics[0]);
+  }
+
+  @Override
+  public boolean test(final String value) {
+    var acceptable = true;
+    for (RuleStatistics rule : evaluationOrder) {
+      if (!rule.test(value)) {
+        acceptable = false;
+        break;
+      }
+    }
+
+    var count = evaluations.get();
+    if (++count.value == reorderInterval) {
+      count.value = 0;
+      if (reordering.compareAndSet(false, true)) {
+        try {
+          reorder();
+        } finally {
+          reordering.set(false);
+        }
+      }
+    }
+    return acceptable;
+  }
+
+  /**
+   * The same rules, in their current order, but evaluating them records no statistics and
+   * never reorders; for evaluating values again off the request path without counting twice.
+   */
+  public Predicate<String> withoutStatistics() {
+    return value -> {
+      for (RuleStatistics rule : evaluationOrder) {
+        if (!rule.rule.predicate().test(value)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  /**
+   * The names of the rules in the order they are currently evaluated.
+   */
+  public List<String> evaluationOrder() {
+    return Arrays.stream(evaluationOrder).map(rule -> rule.rule.name()).toList();
+  }
+
+  /**
+   * Snapshot of the statistics for each rule, in the order the rules were configured.
+   */
+  public List<RuleSnapshot> statistics() {
+    return rules.stream().map(RuleStatistics::snapshot).toList();
+  }
+
+  private void reorder() {
+    //Costs are captured once, other threads carry on updating the statistics during the sort.
+    var costs = new IdentityHashMap<RuleStatistics, Double>();
+    for (RuleStatistics rule : rules) {
+      costs.put(rule, rule.expectedCostPerRejection());
+    }
+    var reordered = evaluationOrder.clone();
+    Arrays.sort(reordered, Comparator.comparingDouble(costs::get));
+    evaluationOrder = reordered;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    for (RuleStatistics rule : rules) {
+      FunctionCounter.builder("validator.rule.evaluations", rule, r -> r.evaluations.sum())
+          .tag("ruleset", name).tag("rule", rule.rule.name())
+          .description("Number of times the rule has been evaluated")
+          .register(registry);
+      FunctionCounter.builder("validator.rule.rejections", rule, r -> r.rejections.sum())
+          .tag("ruleset", name).tag("rule", rule.rule.name())
+          .description("Number of values the rule has rejected")
+          .register(registry);
+      Gauge.builder("validator.rule.cost", rule, r -> r.snapshot().averageNanoSeconds())
+          .tag("ruleset", name).tag("rule", rule.rule.name())
+          .description("Average time taken to evaluate the rule")
+          .baseUnit("nanoseconds")
+          .register(registry);
+      Gauge.builder("validator.rule.position", rule,
+              r -> evaluationOrder().indexOf(r.rule.name()))
+          .tag("ruleset", name).tag("rule", rule.rule.name())
+          .description("Current position of the rule in the evaluation order")
+          .register(registry);
+    }
+  }
+
+  /**
+   * A named rule, the name is used for metrics and reporting.
+   */
+  public record Rule(String name, Predicate<String> predicate) {
+  }
+
+  /**
+   * Point in time view of how a rule has performed.
+   */
+  public record RuleSnapshot(String name, long evaluations, long rejections,
+                             double averageNanoSeconds) {
+
+    /**
+     * The proportion of the evaluations that resulted in a rejection.
+     */
+    public double rejectionRate() {
+      return evaluations == 0 ? 0.0 : (double) rejections / evaluations;
+    }
+  }
+
+  /**
+   * Evaluations made by one thread since it last triggered a reorder.
+   */
+  private static final class EvaluationCount {
+    private long value;
+  }
+
+  /**
+   * Wraps a rule and records how long it takes and how often it rejects.
+   */
+  private static final class RuleStatistics {
+
+    //Stops a rule that has never rejected from having an infinite cost.
+    private static final double MINIMUM_REJECTION_RATE = 0.0001;
+
+    private final Rule rule;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalNanoSeconds = new LongAdder();
+
+    private RuleStatistics(final Rule rule) {
+      this.rule = rule;
+    }
+
+    private boolean test(final String value) {
+      long startTime = System.nanoTime();
+      var passed = rule.predicate().test(value);
+      totalNanoSeconds.add(System.nanoTime() - startTime);
+      evaluations.increment();
+      if (!passed) {
+        rejections.increment();
+      }
+      return passed;
+    }
+
+    /**
+     * Rules are ordered by the cost paid per value rejected, lowest first.
+     * A rule that has not been evaluated yet is moved to the front, so its cost gets learnt.
+     */
+    private double expectedCostPerRejection() {
+      var snapshot = snapshot();
+      if (snapshot.evaluations() == 0) {
+        return 0.0;
+      }
+      return snapshot.averageNanoSeconds()
+          / Math.max(snapshot.rejectionRate(), MINIMUM_REJECTION_RATE);
+    }
+
+    private RuleSnapshot snapshot() {
+      long count = evaluations.sum();
+      double average = count == 0 ? 0.0 : (double) totalNanoSeconds.sum() / count;
+      return new RuleSnapshot(rule.name(), count, rejections.sum(), average);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.boot2.domain;
 
+import com.example.boot2.profiling.ValidationEvent;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,10 +19,21 @@ public class EmailValidator implements Function<String, Status> {
     this.delegateValidator = validator;
   }
 
+  /**
+   * The rules without the caching, logging or events, i.e. for bulk validation.
+   */
+  public ValueValidator delegateValidator() {
+    return delegateValidator;
+  }
+
   @Override
   @Cacheable(value = "email", key = "#emailAddress")
   public Status apply(String emailAddress) {
     logger.info("Checking email validity of {}", emailAddress);
-    return delegateValidator.validate(emailAddress).get();
+    var event = new ValidationEvent();
+    event.begin();
+    var status = delegateValidator.validate(emailAddress).get();
+    event.complete("email", emailAddress, status.acceptable());
+    return status;
   }
 }
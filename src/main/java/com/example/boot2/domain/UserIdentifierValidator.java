@@ -1,5 +1,7 @@
 package com.example.boot2.domain;
 
+import com.example.boot2.profiling.ValidationEvent;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,8 @@ import org.springframework.cache.annotation.Cacheable;
 
 /**
  * User Identifier Validator that delegates to a Value Validator.
+ * The verdict can then be confirmed (for example with the external system), this is only done
+ * on a cache miss as the confirmed verdict is what gets cached.
  */
 public class UserIdentifierValidator implements Function<String, Status> {
 
@@ -14,14 +18,37 @@ public class UserIdentifierValidator implements Function<String, Status> {
 
   private final ValueValidator delegateValidator;
 
+  private final BiFunction<String, Status, Status> confirmation;
+
   public UserIdentifierValidator(final ValueValidator validator) {
+    this(validator, (userIdentifier, status) -> status);
+  }
+
+  /**
+   * Validator whose verdicts are passed, with the user identifier, to the 'confirmation' for
+   * the final say.
+   */
+  public UserIdentifierValidator(final ValueValidator validator,
+                                 final BiFunction<String, Status, Status> confirmation) {
     this.delegateValidator = validator;
+    this.confirmation = confirmation;
+  }
+
+  /**
+   * The rules without the caching, logging or events, i.e. for bulk validation.
+   */
+  public ValueValidator delegateValidator() {
+    return delegateValidator;
   }
 
   @Override
   @Cacheable(value = "status", key = "#userIdentifier")
   public Status apply(String userIdentifier) {
     logger.info("Checking status of {}", userIdentifier);
-    return delegateValidator.validate(userIdentifier).get();
+    var event = new ValidationEvent();
+    event.begin();
+    var status = delegateValidator.validate(userIdentifier).get();
+    event.complete("userIdentifier", userIdentifier, status.acceptable());
+    return confirmation.apply(userIdentifier, status);
   }
 }
@@ -1,5 +1,9 @@
 package com.example.boot2.domain;
 
+import com.example.boot2.external.ExternalSystemCheck;
+import com.example.boot2.index.IndexedValidator;
+import com.example.boot2.index.VerdictIndexHolder;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -14,6 +18,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ValidatorConfiguration {
 
+  private static final long RULE_REORDER_INTERVAL = 1000;
+
   private final Supplier<Status> valid = () -> new Status(true, Optional.empty());
 
   private final Supplier<Status> userIdentifierInvalid =
@@ -29,21 +35,51 @@ public class ValidatorConfiguration {
         new ValueValidator(userIdentifier -> true, valid, userIdentifierInvalid));
   }
 
+  /**
+   * With 'external.check.enabled=true' identifiers that pass the rules are then checked with
+   * the external system, on cache misses only.
+   */
   @Bean
   @ConditionalOnProperty(name = "run.system", havingValue = "prd")
-  UserIdentifierValidator productionUserIdentifierValidator() {
+  UserIdentifierValidator productionUserIdentifierValidator(
+      Optional<ExternalSystemCheck> externalSystemCheck) {
+    var validator =
+        new ValueValidator(productionUserIdentifierRules(), valid, userIdentifierInvalid);
+    return externalSystemCheck
+        .map(check -> new UserIdentifierValidator(validator, check))
+        .orElseGet(() -> new UserIdentifierValidator(validator));
+  }
 
-    final Predicate<String> hasValue =
-        userIdentifier -> userIdentifier != null && !userIdentifier.isBlank();
+  /**
+   * The user identifier rules, these get reordered based on what the real traffic looks like.
+   * Being a bean means the per-rule statistics are bound in as metrics.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "run.system", havingValue = "prd")
+  AdaptiveRuleSet productionUserIdentifierRules() {
+
+    //The ValueValidator never passes a null through, so the rules need not guard against it.
+    final Predicate<String> hasValue = userIdentifier -> !userIdentifier.isBlank();
 
     final Predicate<String> doesNotContainX = userIdentifier -> !userIdentifier.contains("X");
 
     final Predicate<String> doesNotContainPunctuation =
         userIdentifier -> !Pattern.matches("(.*)[\\p{Punct}](.*)", userIdentifier);
 
-    final Predicate<String> rules = hasValue.and(doesNotContainX).and(doesNotContainPunctuation);
+    return new AdaptiveRuleSet("userIdentifier", RULE_REORDER_INTERVAL, List.of(
+        new AdaptiveRuleSet.Rule("hasValue", hasValue),
+        new AdaptiveRuleSet.Rule("doesNotContainX", doesNotContainX),
+        new AdaptiveRuleSet.Rule("doesNotContainPunctuation", doesNotContainPunctuation)));
+  }
 
-    return new UserIdentifierValidator(new ValueValidator(rules, valid, userIdentifierInvalid));
+  /**
+   * Known user identifiers are answered from the verdict index, ahead of the cache and rules.
+   */
+  @Bean
+  IndexedValidator indexedUserIdentifierValidator(
+      UserIdentifierValidator userIdentifierValidator, VerdictIndexHolder verdictIndex) {
+    return new IndexedValidator(verdictIndex, userIdentifierValidator,
+        valid.get(), userIdentifierInvalid.get());
   }
 
   @Bean
@@ -7,6 +7,7 @@ import java.util.function.Supplier;
 /**
  * Models the validator for checking incoming values.
  * Can be configured with a different Predicates and suppliers of responses.
+ * For a composite of several rules see AdaptiveRuleSet.
  */
 public final class ValueValidator {
 
@@ -24,6 +25,14 @@ public final class ValueValidator {
     this.invalid = invalidStatus;
   }
 
+  /**
+   * This validator, but without recording anything in the statistics of an AdaptiveRuleSet.
+   */
+  public ValueValidator withoutStatistics() {
+    return acceptableRule instanceof AdaptiveRuleSet ruleSet
+        ? new ValueValidator(ruleSet.withoutStatistics(), valid, invalid) : this;
+  }
+
   /**
    * Validate the value supplied using the configured rules.
    */
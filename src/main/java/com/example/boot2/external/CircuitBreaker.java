@@ -0,0 +1,127 @@
+package com.example.boot2.external;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calls to a failing external system for a while, so it has a chance to recover and
+ * callers fail fast rather than waiting on timeouts.
+ * The outcomes of the last 'window' calls are kept; once at least half the window has been
+ * seen and the failure rate reaches 'failureRateThreshold' the breaker opens. After
+ * 'openDuration' a single trial call is let through (half open), if that succeeds the breaker
+ * closes again, otherwise it stays open for another 'openDuration'.
+ */
+public class CircuitBreaker {
+
+  /**
+   * The state of the breaker.
+   */
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final double failureRateThreshold;
+  private final long openNanoSeconds;
+  private final LongSupplier nanoTime;
+
+  //Guarded by this.
+  private final boolean[] failures;
+  private int next;
+  private int recorded;
+  private int failed;
+  private State state = State.CLOSED;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  public CircuitBreaker(final double failureRateThreshold, final int window,
+                        final Duration openDuration) {
+    this(failureRateThreshold, window, openDuration, System::nanoTime);
+  }
+
+  /**
+   * Circuit breaker with a supplied clock, i.e. for testing.
+   */
+  CircuitBreaker(final double failureRateThreshold, final int window,
+                 final Duration openDuration, final LongSupplier nanoTime) {
+    if (failureRateThreshold <= 0.0 || failureRateThreshold > 1.0 || window < 1) {
+      throw new IllegalArgumentException(
+          "failure rate threshold must be in (0, 1] and window must be greater than 0");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    this.failures = new boolean[window];
+    this.openNanoSeconds = openDuration.toNanos();
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * True if a call may be made now, every permitted call must have its outcome recorded.
+   */
+  public synchronized boolean tryAcquire() {
+    if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanoSeconds) {
+      state = State.HALF_OPEN;
+    }
+    return switch (state) {
+      case CLOSED -> true;
+      case OPEN -> false;
+      case HALF_OPEN -> {
+        if (trialInFlight) {
+          yield false;
+        }
+        trialInFlight = true;
+        yield true;
+      }
+    };
+  }
+
+  /**
+   * Record the outcome of a permitted call.
+   */
+  public synchronized void record(final boolean success) {
+    if (state == State.HALF_OPEN) {
+      trialInFlight = false;
+      if (success) {
+        reset();
+        state = State.CLOSED;
+      } else {
+        open();
+      }
+      return;
+    }
+    if (state == State.OPEN) {
+      //A call made before the breaker opened, it does not change anything.
+      return;
+    }
+
+    if (recorded == failures.length) {
+      failed -= failures[next] ? 1 : 0;
+    } else {
+      recorded++;
+    }
+    failures[next] = !success;
+    failed += success ? 0 : 1;
+    next = (next + 1) % failures.length;
+
+    if (recorded * 2 >= failures.length && failed >= failureRateThreshold * recorded) {
+      open();
+    }
+  }
+
+  /**
+   * The current state, an open breaker only shows as half open once a call is attempted.
+   */
+  public synchronized State state() {
+    return state;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = nanoTime.getAsLong();
+    reset();
+  }
+
+  private void reset() {
+    next = 0;
+    recorded = 0;
+    failed = 0;
+  }
+}
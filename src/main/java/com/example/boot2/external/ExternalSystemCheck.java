@@ -0,0 +1,36 @@
+package com.example.boot2.external;
+
+import com.example.boot2.domain.Status;
+import java.util.function.BiFunction;
+
+/**
+ * Asks the external system about values that have passed the local rules.
+ * The external system has the final say, but if it does not answer (timeout, failure or the
+ * circuit is open) the local verdict stands; so the external system being down never turns
+ * into requests failing. How often that happens is in the 'external.calls' metrics.
+ * The wait for the answer is bounded by the client's timeout, and holds the request's worker
+ * thread; so it is only used on a cache miss (see UserIdentifierValidator), never for values
+ * answered from the verdict index or the cache.
+ */
+public class ExternalSystemCheck implements BiFunction<String, Status, Status> {
+
+  private final ExternalSystemClient client;
+
+  /**
+   * Check acceptable values with the 'client'.
+   */
+  public ExternalSystemCheck(final ExternalSystemClient client) {
+    this.client = client;
+  }
+
+  /**
+   * The final verdict on the value, given the verdict of the local rules.
+   */
+  @Override
+  public Status apply(final String value, final Status local) {
+    if (!local.acceptable()) {
+      return local;
+    }
+    return client.call(value).exceptionally(ex -> local).join();
+  }
+}
@@ -0,0 +1,187 @@
+package com.example.boot2.external;
+
+import com.example.boot2.ExternalSystem;
+import com.example.boot2.domain.Status;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls the external system without blocking, and protects the caller from it.
+ * <ul>
+ *   <li>Timeout - the future fails with a TimeoutException after 'timeout'</li>
+ *   <li>Hedging - if there is no answer by the p95 latency, a second call is made and the
+ *   first answer wins; so one slow call does not make a slow request</li>
+ *   <li>Circuit breaker - while the external system is failing calls fail straight away
+ *   with an ExternalSystemUnavailableException</li>
+ * </ul>
+ * Until enough latencies are known to work out the p95 'initialHedgeDelay' is used.
+ * The client owns the scheduler, it only runs the timeouts and hedges, never the calls.
+ */
+public class ExternalSystemClient implements MeterBinder, Closeable {
+
+  private static final double HEDGE_PERCENTILE = 0.95;
+  private static final int LATENCY_WINDOW = 1000;
+  private static final int RECALCULATE_EVERY = 100;
+
+  private final ExternalSystem externalSystem;
+  private final ScheduledExecutorService scheduler;
+  private final CircuitBreaker circuitBreaker;
+  private final long timeoutNanoSeconds;
+  private final long initialHedgeDelayNanoSeconds;
+  private final long minHedgeDelayNanoSeconds;
+  private final LatencyPercentile latency =
+      new LatencyPercentile(HEDGE_PERCENTILE, LATENCY_WINDOW, RECALCULATE_EVERY);
+
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private volatile Timer latencyTimer;
+
+  /**
+   * Client for the external system, timeouts and hedges are scheduled on 'scheduler'.
+   */
+  public ExternalSystemClient(final ExternalSystem externalSystem,
+                              final ScheduledExecutorService scheduler,
+                              final CircuitBreaker circuitBreaker,
+                              final Duration timeout,
+                              final Duration initialHedgeDelay,
+                              final Duration minHedgeDelay) {
+    this.externalSystem = externalSystem;
+    this.scheduler = scheduler;
+    this.circuitBreaker = circuitBreaker;
+    this.timeoutNanoSeconds = timeout.toNanos();
+    this.initialHedgeDelayNanoSeconds = initialHedgeDelay.toNanos();
+    this.minHedgeDelayNanoSeconds = minHedgeDelay.toNanos();
+  }
+
+  /**
+   * Call the external system, the future completes with the first answer, or fails.
+   */
+  public CompletableFuture<Status> call(final String value) {
+    if (!circuitBreaker.tryAcquire()) {
+      rejections.increment();
+      return CompletableFuture.failedFuture(
+          new ExternalSystemUnavailableException(externalSystem.getExternalSystemName()));
+    }
+
+    var startTime = System.nanoTime();
+    var result = new CompletableFuture<Status>();
+    var inFlight = new AtomicInteger();
+    attempt(value, result, inFlight);
+
+    //Nothing to schedule if it has already answered.
+    var answered = result.isDone();
+    var hedge = answered ? null : scheduler.schedule(() -> {
+      if (!result.isDone()) {
+        hedges.increment();
+        attempt(value, result, inFlight);
+      }
+    }, hedgeDelayNanoSeconds(), TimeUnit.NANOSECONDS);
+    var timeout = answered ? null : scheduler.schedule(() -> {
+      if (result.completeExceptionally(new TimeoutException(
+          "No answer from " + externalSystem.getExternalSystemName()))) {
+        timeouts.increment();
+      }
+    }, timeoutNanoSeconds, TimeUnit.NANOSECONDS);
+
+    result.whenComplete((status, ex) -> {
+      if (hedge != null) {
+        hedge.cancel(false);
+        timeout.cancel(false);
+      }
+      circuitBreaker.record(ex == null);
+      if (ex == null) {
+        successes.increment();
+      } else if (!(ex instanceof TimeoutException)) {
+        failures.increment();
+      }
+      if (latencyTimer != null) {
+        latencyTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Make one call, the result fails only when every call made so far has failed.
+   */
+  private void attempt(final String value, final CompletableFuture<Status> result,
+                       final AtomicInteger inFlight) {
+    inFlight.incrementAndGet();
+    var attemptStart = System.nanoTime();
+    CompletableFuture<Status> call;
+    try {
+      call = externalSystem.call(value);
+    } catch (RuntimeException ex) {
+      call = CompletableFuture.failedFuture(ex);
+    }
+    call.whenComplete((status, ex) -> {
+      if (ex == null) {
+        latency.record(System.nanoTime() - attemptStart);
+        result.complete(status);
+      } else if (inFlight.decrementAndGet() == 0) {
+        result.completeExceptionally(ex);
+      }
+    });
+  }
+
+  private long hedgeDelayNanoSeconds() {
+    var p95 = latency.nanoSeconds();
+    return p95 < 0 ? initialHedgeDelayNanoSeconds : Math.max(p95, minHedgeDelayNanoSeconds);
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    var name = externalSystem.getExternalSystemName();
+    outcomeCounter(registry, name, "success", successes);
+    outcomeCounter(registry, name, "failure", failures);
+    outcomeCounter(registry, name, "timeout", timeouts);
+    outcomeCounter(registry, name, "rejected", rejections);
+    FunctionCounter.builder("external.hedges", hedges, LongAdder::sum)
+        .tag("system", name)
+        .description("Second calls made because the first was slower than the p95")
+        .register(registry);
+    Gauge.builder("external.hedge.delay", this, client -> client.hedgeDelayNanoSeconds() / 1e9)
+        .tag("system", name)
+        .description("Seconds before a hedged call is made")
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("external.circuit.state", circuitBreaker,
+            breaker -> breaker.state().ordinal())
+        .tag("system", name)
+        .description("The circuit breaker state, 0 closed, 1 open, 2 half open")
+        .register(registry);
+    latencyTimer = Timer.builder("external.latency")
+        .tag("system", name)
+        .description("Time to the first answer (or failure) from the external system")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private static void outcomeCounter(final MeterRegistry registry, final String name,
+                                     final String outcome, final LongAdder count) {
+    FunctionCounter.builder("external.calls", count, LongAdder::sum)
+        .tag("system", name)
+        .tag("outcome", outcome)
+        .description("Calls to the external system by outcome")
+        .register(registry);
+  }
+}
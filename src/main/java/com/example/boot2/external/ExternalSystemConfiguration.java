@@ -0,0 +1,47 @@
+package com.example.boot2.external;
+
+import com.example.boot2.ExternalSystem;
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Configures the client for whichever external system is in use.
+ */
+@Configuration
+public class ExternalSystemConfiguration {
+
+  @Bean
+  ExternalSystemClient externalSystemClient(
+      ExternalSystem externalSystem,
+      @Value("${external.timeout:200ms}") Duration timeout,
+      @Value("${external.hedge.initial-delay:50ms}") Duration initialHedgeDelay,
+      @Value("${external.hedge.min-delay:1ms}") Duration minHedgeDelay,
+      @Value("${external.circuit.failure-rate:0.5}") double failureRate,
+      @Value("${external.circuit.window:20}") int window,
+      @Value("${external.circuit.open-duration:5s}") Duration openDuration) {
+
+    var threadFactory = new CustomizableThreadFactory("external-");
+    threadFactory.setDaemon(true);
+    var scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+    scheduler.setRemoveOnCancelPolicy(true);
+
+    return new ExternalSystemClient(externalSystem, scheduler,
+        new CircuitBreaker(failureRate, window, openDuration),
+        timeout, initialHedgeDelay, minHedgeDelay);
+  }
+
+  /**
+   * Checks user identifiers with the external system, off unless 'external.check.enabled'.
+   * Each check can hold a worker thread for up to 'external.timeout'.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "external.check.enabled", havingValue = "true")
+  ExternalSystemCheck externalSystemCheck(ExternalSystemClient externalSystemClient) {
+    return new ExternalSystemCheck(externalSystemClient);
+  }
+}
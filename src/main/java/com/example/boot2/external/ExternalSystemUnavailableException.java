@@ -0,0 +1,13 @@
+package com.example.boot2.external;
+
+/**
+ * Thrown (via the future) when a call is not made because the circuit breaker is open.
+ * There is no stack trace, it is expected while the external system is failing.
+ */
+public class ExternalSystemUnavailableException extends RuntimeException {
+
+  public ExternalSystemUnavailableException(String externalSystemName) {
+    super("External system " + externalSystemName + " is unavailable, try again later", null,
+        false, false);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.boot2.external;
+
+import java.util.Arrays;
+
+/**
+ * Tracks a percentile (i.e. the p95) of the most recent latencies.
+ * The latencies are kept in a ring buffer and the percentile is recalculated every
+ * 'recalculateEvery' samples, so reading it is just a volatile read.
+ */
+public class LatencyPercentile {
+
+  private final double percentile;
+  private final int recalculateEvery;
+
+  //Guarded by this.
+  private final long[] samples;
+  private int next;
+  private int recorded;
+  private int sinceRecalculated;
+
+  private volatile long valueNanoSeconds = -1;
+
+  /**
+   * Track the 'percentile' (0 to 1) over the last 'window' latencies.
+   */
+  public LatencyPercentile(final double percentile, final int window,
+                           final int recalculateEvery) {
+    if (percentile <= 0.0 || percentile > 1.0 || window < 1 || recalculateEvery < 1) {
+      throw new IllegalArgumentException(
+          "percentile must be in (0, 1], window and recalculate every must be greater than 0");
+    }
+    this.percentile = percentile;
+    this.samples = new long[window];
+    this.recalculateEvery = recalculateEvery;
+  }
+
+  /**
+   * Record a latency.
+   */
+  public synchronized void record(final long nanoSeconds) {
+    samples[next] = nanoSeconds;
+    next = (next + 1) % samples.length;
+    recorded = Math.min(recorded + 1, samples.length);
+    if (++sinceRecalculated >= recalculateEvery) {
+      sinceRecalculated = 0;
+      var sorted = Arrays.copyOf(samples, recorded);
+      Arrays.sort(sorted);
+      valueNanoSeconds = sorted[(int) Math.ceil(percentile * recorded) - 1];
+    }
+  }
+
+  /**
+   * The percentile in nanoseconds, or -1 until 'recalculateEvery' latencies are recorded.
+   */
+  public long nanoSeconds() {
+    return valueNanoSeconds;
+  }
+}
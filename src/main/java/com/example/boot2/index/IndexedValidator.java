@@ -0,0 +1,38 @@
+package com.example.boot2.index;
+
+import com.example.boot2.domain.Status;
+import java.util.function.Function;
+
+/**
+ * Answers from the verdict index when the identifier is known, without logging, caching or
+ * running any rules. Anything the index does not know about goes to the delegate as before.
+ */
+public class IndexedValidator implements Function<String, Status> {
+
+  private final VerdictIndexHolder verdictIndex;
+  private final Function<String, Status> delegate;
+  private final Status acceptable;
+  private final Status unacceptable;
+
+  /**
+   * Validator answering from the index with the 'acceptable' or 'unacceptable' status.
+   * These must be the same statuses the delegate would give.
+   */
+  public IndexedValidator(final VerdictIndexHolder verdictIndex,
+                          final Function<String, Status> delegate,
+                          final Status acceptable, final Status unacceptable) {
+    this.verdictIndex = verdictIndex;
+    this.delegate = delegate;
+    this.acceptable = acceptable;
+    this.unacceptable = unacceptable;
+  }
+
+  @Override
+  public Status apply(final String value) {
+    return switch (verdictIndex.lookup(value)) {
+      case ACCEPTABLE -> acceptable;
+      case UNACCEPTABLE -> unacceptable;
+      case UNKNOWN -> delegate.apply(value);
+    };
+  }
+}
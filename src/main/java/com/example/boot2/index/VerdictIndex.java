@@ -0,0 +1,153 @@
+package com.example.boot2.index;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read only, memory mapped index of precomputed verdicts for a known set of identifiers.
+ * See VerdictIndexWriter for how the file is built.
+ *
+ * A lookup first checks a Bloom filter, so most unknown identifiers are turned away having
+ * touched just a few words. Known identifiers are then found with a minimal perfect hash
+ * (hash and displace), one slot per identifier, and confirmed with a 64-bit fingerprint.
+ * So a lookup is O(1), reads only the mapped file and allocates nothing.
+ * There is a (1 in 2^64) chance an unknown identifier is mistaken for a known one.
+ *
+ * The file layout, all big endian:
+ * <pre>
+ *   header        magic, version, count, buckets, bloom words, bloom hashes (6 ints)
+ *   bloom filter  'bloom words' longs
+ *   displacements 'buckets' ints, then padding to a multiple of 8 bytes
+ *   fingerprints  'count' longs
+ *   verdicts      'count' bytes, 1 for acceptable, 0 for unacceptable
+ * </pre>
+ */
+public final class VerdictIndex {
+
+  static final int MAGIC = 0x56494458;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+  static final long FINGERPRINT_SEED = 0xcbf29ce484222325L;
+  static final long BUCKET_SEED = 0x84222325cbf29ce4L;
+  static final long DISPLACEMENT_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private final int buckets;
+  private final long bloomBits;
+  private final int bloomHashes;
+  private final int displacementOffset;
+  private final int fingerprintOffset;
+  private final int verdictOffset;
+
+  private VerdictIndex(final MappedByteBuffer buffer, final Path path) {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("not a verdict index " + path);
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("unsupported verdict index version in " + path);
+    }
+    this.buffer = buffer;
+    this.count = buffer.getInt(8);
+    this.buckets = buffer.getInt(12);
+    var bloomWords = buffer.getInt(16);
+    this.bloomBits = (long) bloomWords * Long.SIZE;
+    this.bloomHashes = buffer.getInt(20);
+    this.displacementOffset = HEADER_SIZE + bloomWords * Long.BYTES;
+    this.fingerprintOffset = align(displacementOffset + buckets * Integer.BYTES);
+    this.verdictOffset = fingerprintOffset + count * Long.BYTES;
+
+    if (verdictOffset + count != buffer.capacity()) {
+      throw new IllegalArgumentException("truncated or corrupt verdict index " + path);
+    }
+  }
+
+  /**
+   * Map the index file, it can then be closed, replaced or deleted without affecting lookups.
+   */
+  public static VerdictIndex open(final Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("verdict index too large " + path);
+      }
+      return new VerdictIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+          path);
+    }
+  }
+
+  /**
+   * The verdict for the identifier, UNKNOWN if it is not in the index.
+   */
+  public Verdict lookup(final String identifier) {
+    if (identifier == null || count == 0) {
+      return Verdict.UNKNOWN;
+    }
+    var fingerprint = hash(identifier, FINGERPRINT_SEED);
+    var bucketHash = hash(identifier, BUCKET_SEED);
+
+    for (int i = 0; i < bloomHashes; i++) {
+      var bit = Long.remainderUnsigned(fingerprint + i * bucketHash, bloomBits);
+      var word = buffer.getLong(HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES);
+      if ((word & (1L << bit)) == 0) {
+        return Verdict.UNKNOWN;
+      }
+    }
+
+    var bucket = (int) Long.remainderUnsigned(bucketHash, buckets);
+    var displacement = buffer.getInt(displacementOffset + bucket * Integer.BYTES);
+    var slot = slot(fingerprint, displacement, count);
+    if (buffer.getLong(fingerprintOffset + slot * Long.BYTES) != fingerprint) {
+      return Verdict.UNKNOWN;
+    }
+    return buffer.get(verdictOffset + slot) == 1 ? Verdict.ACCEPTABLE : Verdict.UNACCEPTABLE;
+  }
+
+  /**
+   * The number of identifiers in the index.
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * 64-bit FNV-1a over the chars, finished with the murmur3 mix; no bytes are allocated.
+   */
+  static long hash(final CharSequence value, final long seed) {
+    var hash = seed;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  static int slot(final long fingerprint, final int displacement, final int count) {
+    return (int) Long.remainderUnsigned(
+        mix(fingerprint ^ displacement * DISPLACEMENT_MULTIPLIER), count);
+  }
+
+  static int align(final int offset) {
+    return (offset + Long.BYTES - 1) & -Long.BYTES;
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  /**
+   * What the index knows about an identifier.
+   */
+  public enum Verdict {
+    UNKNOWN, ACCEPTABLE, UNACCEPTABLE
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.boot2.index;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the optional verdict index for user identifiers.
+ * Set 'verdict.index.path' to the index file (built with VerdictIndexWriter), it is checked
+ * for a replacement every 'verdict.index.poll-interval'. Without a path there is no index.
+ */
+@Configuration
+public class VerdictIndexConfiguration {
+
+  @Bean
+  VerdictIndexHolder userIdentifierVerdictIndex(
+      @Value("${verdict.index.path:}") String path,
+      @Value("${verdict.index.poll-interval:30s}") Duration pollInterval) {
+    return path.isBlank() ? VerdictIndexHolder.empty()
+        : VerdictIndexHolder.polling(Path.of(path), pollInterval);
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.boot2.index;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Holds the current VerdictIndex and swaps in a new one when the file is replaced.
+ * The file is polled, when it has changed the new file is mapped and then swapped in with a
+ * single volatile write; lookups in flight carry on against the old index.
+ * The old mapping is released by the garbage collector once nothing refers to it.
+ * If a new file cannot be read the old index stays in use.
+ * A new index must be moved into place (as VerdictIndexWriter does), never written over the
+ * existing file, as that file is still mapped.
+ */
+public class VerdictIndexHolder implements MeterBinder, Closeable {
+
+  private final Logger logger = LoggerFactory.getLogger(VerdictIndexHolder.class);
+
+  private final Path path;
+  private final ScheduledExecutorService poller;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private volatile VerdictIndex index;
+  private String loadedFileKey;
+
+  private VerdictIndexHolder(final Path path, final ScheduledExecutorService poller) {
+    this.path = path;
+    this.poller = poller;
+  }
+
+  /**
+   * A holder that never has an index, every lookup is UNKNOWN.
+   */
+  public static VerdictIndexHolder empty() {
+    return new VerdictIndexHolder(null, null);
+  }
+
+  /**
+   * A holder for the index at 'path', checked for a new file every 'pollInterval'.
+   * The file need not exist yet.
+   */
+  public static VerdictIndexHolder polling(final Path path, final Duration pollInterval) {
+    var threadFactory = new CustomizableThreadFactory("verdict-index-");
+    threadFactory.setDaemon(true);
+    var holder = new VerdictIndexHolder(path, Executors.newSingleThreadScheduledExecutor(
+        threadFactory));
+    holder.refresh();
+    holder.poller.scheduleWithFixedDelay(holder::refresh, pollInterval.toMillis(),
+        pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    return holder;
+  }
+
+  /**
+   * The verdict from the current index, UNKNOWN if there is no index.
+   */
+  public VerdictIndex.Verdict lookup(final String identifier) {
+    var current = index;
+    var verdict = current == null ? VerdictIndex.Verdict.UNKNOWN : current.lookup(identifier);
+    if (verdict == VerdictIndex.Verdict.UNKNOWN) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return verdict;
+  }
+
+  /**
+   * Load the index file if it is new or has been replaced since it was last loaded.
+   */
+  synchronized void refresh() {
+    try {
+      if (path == null || !Files.exists(path)) {
+        return;
+      }
+      var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      var fileKey = Objects.requireNonNullElse(attributes.fileKey(), "")
+          + "/" + attributes.lastModifiedTime() + "/" + attributes.size();
+      if (!fileKey.equals(loadedFileKey)) {
+        index = VerdictIndex.open(path);
+        loadedFileKey = fileKey;
+        logger.info("Loaded verdict index {} of {} identifiers", path, index.size());
+      }
+    } catch (IOException | IllegalArgumentException ex) {
+      logger.warn("Unable to load verdict index {}, keeping the current index", path, ex);
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("verdict.index.size", this, holder -> {
+      var current = holder.index;
+      return current == null ? 0 : current.size();
+    }).description("Identifiers in the current verdict index").register(registry);
+    FunctionCounter.builder("verdict.index.lookups", hits, LongAdder::sum)
+        .tag("result", "hit")
+        .description("Lookups answered by the verdict index")
+        .register(registry);
+    FunctionCounter.builder("verdict.index.lookups", misses, LongAdder::sum)
+        .tag("result", "miss")
+        .description("Lookups the verdict index knew nothing about")
+        .register(registry);
+  }
+
+  @Override
+  public void close() {
+    if (poller != null) {
+      poller.shutdownNow();
+    }
+  }
+}
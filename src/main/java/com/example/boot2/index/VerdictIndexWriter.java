@@ -0,0 +1,206 @@
+package com.example.boot2.index;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Builds a VerdictIndex file, offline, from identifiers and their verdicts.
+ * The file is written alongside the output and then moved into place, so a running
+ * application polling for it never sees a partly written index.
+ *
+ * The input for 'main' is one identifier per line, a tab and then 'true' or 'false';
+ * i.e. the output of a bulk validation run.
+ */
+public class VerdictIndexWriter {
+
+  private static final int BLOOM_BITS_PER_IDENTIFIER = 10;
+  private static final int BLOOM_HASHES = 7;
+  private static final int IDENTIFIERS_PER_BUCKET = 2;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private long[] fingerprints = new long[INITIAL_CAPACITY];
+  private long[] bucketHashes = new long[INITIAL_CAPACITY];
+  private byte[] verdicts = new byte[INITIAL_CAPACITY];
+  private int count;
+
+  /**
+   * Add an identifier and its verdict, each identifier must only be added once.
+   */
+  public VerdictIndexWriter add(final String identifier, final boolean acceptable) {
+    if (count == fingerprints.length) {
+      var capacity = count * 2;
+      fingerprints = Arrays.copyOf(fingerprints, capacity);
+      bucketHashes = Arrays.copyOf(bucketHashes, capacity);
+      verdicts = Arrays.copyOf(verdicts, capacity);
+    }
+    fingerprints[count] = VerdictIndex.hash(identifier, VerdictIndex.FINGERPRINT_SEED);
+    bucketHashes[count] = VerdictIndex.hash(identifier, VerdictIndex.BUCKET_SEED);
+    verdicts[count] = (byte) (acceptable ? 1 : 0);
+    count++;
+    return this;
+  }
+
+  /**
+   * Build the index and write it to 'output', replacing any existing file atomically.
+   */
+  public void write(final Path output) throws IOException {
+    checkForDuplicates();
+
+    var buckets = Math.max(1, (count + IDENTIFIERS_PER_BUCKET - 1) / IDENTIFIERS_PER_BUCKET);
+    var bloomWords = Math.max(1, (int) (((long) count * BLOOM_BITS_PER_IDENTIFIER + 63) / 64));
+    var displacementOffset = (long) VerdictIndex.HEADER_SIZE + (long) bloomWords * Long.BYTES;
+    var fingerprintOffset = (displacementOffset + (long) buckets * Integer.BYTES + 7) & -8L;
+    var verdictOffset = fingerprintOffset + (long) count * Long.BYTES;
+    var size = verdictOffset + count;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("too many identifiers for one index, " + count);
+    }
+
+    var displacements = new int[buckets];
+    var slots = place(buckets, displacements);
+
+    var directory = output.toAbsolutePath().getParent();
+    var temporary = Files.createTempFile(directory, output.getFileName().toString(), ".tmp");
+    try {
+      try (var channel = FileChannel.open(temporary, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, VerdictIndex.MAGIC);
+        buffer.putInt(4, VerdictIndex.VERSION);
+        buffer.putInt(8, count);
+        buffer.putInt(12, buckets);
+        buffer.putInt(16, bloomWords);
+        buffer.putInt(20, BLOOM_HASHES);
+
+        var bloomBits = (long) bloomWords * Long.SIZE;
+        for (int i = 0; i < count; i++) {
+          for (int j = 0; j < BLOOM_HASHES; j++) {
+            var bit = Long.remainderUnsigned(fingerprints[i] + j * bucketHashes[i], bloomBits);
+            var at = VerdictIndex.HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES;
+            buffer.putLong(at, buffer.getLong(at) | 1L << bit);
+          }
+        }
+        for (int bucket = 0; bucket < buckets; bucket++) {
+          buffer.putInt((int) displacementOffset + bucket * Integer.BYTES,
+              displacements[bucket]);
+        }
+        for (int i = 0; i < count; i++) {
+          buffer.putLong((int) fingerprintOffset + slots[i] * Long.BYTES, fingerprints[i]);
+          buffer.put((int) verdictOffset + slots[i], verdicts[i]);
+        }
+        buffer.force();
+      }
+      Files.move(temporary, output, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Hash and displace; the buckets with the most identifiers are placed first, while the
+   * table is still empty. For each bucket find a displacement that puts all of its
+   * identifiers in free slots. Returns the slot for each identifier.
+   */
+  private int[] place(final int buckets, final int[] displacements) {
+    //Group the identifiers by bucket.
+    var bucketStart = new int[buckets + 1];
+    var bucketOf = new int[count];
+    for (int i = 0; i < count; i++) {
+      bucketOf[i] = (int) Long.remainderUnsigned(bucketHashes[i], buckets);
+      bucketStart[bucketOf[i] + 1]++;
+    }
+    var maxBucketSize = 0;
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      maxBucketSize = Math.max(maxBucketSize, bucketStart[bucket + 1]);
+      bucketStart[bucket + 1] += bucketStart[bucket];
+    }
+    var members = new int[count];
+    var filled = Arrays.copyOf(bucketStart, buckets);
+    for (int i = 0; i < count; i++) {
+      members[filled[bucketOf[i]]++] = i;
+    }
+
+    var slots = new int[count];
+    var taken = new BitSet(count);
+    var candidate = new int[maxBucketSize];
+    for (int size = maxBucketSize; size > 0; size--) {
+      for (int bucket = 0; bucket < buckets; bucket++) {
+        if (bucketStart[bucket + 1] - bucketStart[bucket] == size) {
+          displacements[bucket] =
+              displace(members, bucketStart[bucket], size, taken, candidate);
+          for (int j = 0; j < size; j++) {
+            slots[members[bucketStart[bucket] + j]] = candidate[j];
+            taken.set(candidate[j]);
+          }
+        }
+      }
+    }
+    return slots;
+  }
+
+  private int displace(final int[] members, final int start, final int size,
+                       final BitSet taken, final int[] candidate) {
+    for (int displacement = 0; displacement < Integer.MAX_VALUE; displacement++) {
+      if (fits(members, start, size, displacement, taken, candidate)) {
+        return displacement;
+      }
+    }
+    throw new IllegalStateException("unable to place bucket of " + size + " identifiers");
+  }
+
+  private boolean fits(final int[] members, final int start, final int size,
+                       final int displacement, final BitSet taken, final int[] candidate) {
+    for (int j = 0; j < size; j++) {
+      var slot = VerdictIndex.slot(fingerprints[members[start + j]], displacement, count);
+      if (taken.get(slot)) {
+        return false;
+      }
+      for (int k = 0; k < j; k++) {
+        if (candidate[k] == slot) {
+          return false;
+        }
+      }
+      candidate[j] = slot;
+    }
+    return true;
+  }
+
+  private void checkForDuplicates() {
+    var sorted = Arrays.copyOf(fingerprints, count);
+    Arrays.sort(sorted);
+    for (int i = 1; i < count; i++) {
+      if (sorted[i] == sorted[i - 1]) {
+        throw new IllegalArgumentException(
+            "duplicate identifier (or fingerprint collision) in the input");
+      }
+    }
+  }
+
+  /**
+   * Build an index file from a verdicts file, i.e. 'VerdictIndexWriter verdicts.tsv index.bin'.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("expecting the input and output file names");
+    }
+    var writer = new VerdictIndexWriter();
+    try (var lines = Files.lines(Path.of(args[0]))) {
+      lines.filter(line -> !line.isBlank()).forEach(line -> {
+        var tab = line.lastIndexOf('\t');
+        var verdict = tab < 0 ? "" : line.substring(tab + 1).trim();
+        if (!"true".equals(verdict) && !"false".equals(verdict)) {
+          throw new IllegalArgumentException("expecting 'identifier<tab>true|false' " + line);
+        }
+        writer.add(line.substring(0, tab), "true".equals(verdict));
+      });
+    }
+    writer.write(Path.of(args[1]));
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.boot2.monitoring;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts requests in flight and notes when each request arrived.
+ * Runs first, so that any time spent in later filters counts towards the admission wait.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SaturationFilter extends OncePerRequestFilter {
+
+  private final SaturationMonitor saturationMonitor;
+
+  public SaturationFilter(SaturationMonitor saturationMonitor) {
+    this.saturationMonitor = saturationMonitor;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    request.setAttribute(SaturationMonitor.ARRIVAL_ATTRIBUTE, System.nanoTime());
+    saturationMonitor.requestArrived();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      saturationMonitor.requestCompleted();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.boot2.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Holds the signals that show the service is saturated, well before the CPU gets busy.
+ * The worker threads spend most of their time padding in 'Delay', so these are what the
+ * Helm chart can autoscale on.
+ * <ul>
+ *   <li>boot2.requests.inflight - requests currently being dealt with</li>
+ *   <li>boot2.padding.depth - threads currently sleeping to pad out the response time</li>
+ *   <li>boot2.requests.admission - time from a request entering the application to it being
+ *   worked on</li>
+ * </ul>
+ * The admission wait starts at the first servlet filter, so it only covers waiting inside the
+ * application (the filters, the bulkheads). It does not include the time a connection waits in
+ * Tomcat for a worker thread; Tomcat only notes a request's start once a worker is reading it.
+ * That wait shows up as boot2.workers.queue (see TomcatWorkerPoolMetrics).
+ */
+@Component
+public class SaturationMonitor {
+
+  static final String ARRIVAL_ATTRIBUTE = SaturationMonitor.class.getName() + ".arrival";
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger paddingDepth = new AtomicInteger();
+  private final Timer admission;
+
+  /**
+   * Create the monitor and register the saturation metrics.
+   */
+  public SaturationMonitor(MeterRegistry meterRegistry) {
+    Gauge.builder("boot2.requests.inflight", inFlight, AtomicInteger::get)
+        .description("Requests currently in flight")
+        .register(meterRegistry);
+    Gauge.builder("boot2.padding.depth", paddingDepth, AtomicInteger::get)
+        .description("Threads currently padding out the response time")
+        .register(meterRegistry);
+    admission = Timer.builder("boot2.requests.admission")
+        .description("Time from a request entering the application to it being worked on")
+        .register(meterRegistry);
+  }
+
+  /**
+   * The counter for Delay to keep up to date.
+   */
+  public AtomicInteger paddingDepth() {
+    return paddingDepth;
+  }
+
+  /**
+   * Call when work on the current request starts, records how long it waited since
+   * entering the application.
+   */
+  public void processingStarted() {
+    var attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null
+        && attributes.getAttribute(ARRIVAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+        instanceof Long arrival) {
+      admission.record(System.nanoTime() - arrival, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  void requestArrived() {
+    inFlight.incrementAndGet();
+  }
+
+  void requestCompleted() {
+    inFlight.decrementAndGet();
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.boot2.monitoring;
+
+import java.lang.management.ManagementFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs how long startup took and how much heap is retained once started.
+ * Used to compare configurations, i.e. with and without the 'production' profile.
+ * This forces a full GC to measure the retained heap, so it is off by default; set
+ * 'startup.footprint.enabled=true' to turn it on.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.footprint.enabled", havingValue = "true")
+public class StartupFootprint {
+
+  private static final long BYTES_IN_KILOBYTE = 1024L;
+
+  private final Logger logger = LoggerFactory.getLogger(StartupFootprint.class);
+
+  /**
+   * Log the footprint once the application is ready to serve requests.
+   */
+  @EventListener
+  public void ready(ApplicationReadyEvent event) {
+    System.gc();
+    var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    logger.info("Startup took {}ms (JVM up {}ms), retained heap {}KB, {} classes, {} beans",
+        event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+        ManagementFactory.getRuntimeMXBean().getUptime(),
+        heap.getUsed() / BYTES_IN_KILOBYTE,
+        ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(),
+        event.getApplicationContext().getBeanDefinitionCount());
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.boot2.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToDoubleFunction;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes how busy the Tomcat worker pool is.
+ * <ul>
+ *   <li>boot2.workers.utilization - busy worker threads as a fraction of the maximum</li>
+ *   <li>boot2.workers.queue - connections waiting for a worker thread</li>
+ * </ul>
+ * Only available when running in Tomcat, otherwise the gauges have no value (NaN).
+ */
+@Component
+public class TomcatWorkerPoolMetrics implements TomcatConnectorCustomizer, MeterBinder {
+
+  private volatile Connector connector;
+
+  @Override
+  public void customize(Connector connector) {
+    this.connector = connector;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("boot2.workers.utilization", this,
+            workerPool(executor -> (double) executor.getActiveCount()
+                / executor.getMaximumPoolSize()))
+        .description("Busy worker threads as a fraction of the maximum")
+        .register(registry);
+    Gauge.builder("boot2.workers.queue", this,
+            workerPool(executor -> executor.getQueue().size()))
+        .description("Connections waiting for a worker thread")
+        .register(registry);
+  }
+
+  private static ToDoubleFunction<TomcatWorkerPoolMetrics> workerPool(
+      ToDoubleFunction<ThreadPoolExecutor> metric) {
+    return metrics -> {
+      var current = metrics.connector;
+      if (current != null
+          && current.getProtocolHandler().getExecutor() instanceof ThreadPoolExecutor executor) {
+        return metric.applyAsDouble(executor);
+      }
+      return Double.NaN;
+    };
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.boot2.priority;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Priority scheduling of requests by client tier, only with 'priority.enabled=true'.
+ * This needs mutual TLS, as the tier comes from the client certificate.
+ * Each endpoint has its own scheduler, just as each has its own bulkhead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "priority.enabled", havingValue = "true")
+@EnableConfigurationProperties(PriorityProperties.class)
+public class PriorityConfiguration {
+
+  @Bean
+  PriorityScheduler emailPriorityScheduler(PriorityProperties properties) {
+    return new PriorityScheduler("email", properties.email().maxConcurrent(), tiers(properties));
+  }
+
+  @Bean
+  PriorityScheduler statusPriorityScheduler(PriorityProperties properties) {
+    return new PriorityScheduler("status", properties.status().maxConcurrent(),
+        tiers(properties));
+  }
+
+  private static List<PriorityScheduler.Tier> tiers(PriorityProperties properties) {
+    if (properties.tiers() == null || !properties.tiers().containsKey(properties.defaultTier())) {
+      throw new IllegalArgumentException(
+          "default tier " + properties.defaultTier() + " must be one of the priority tiers");
+    }
+    List<PriorityScheduler.Tier> tiers = new ArrayList<>();
+    properties.tiers().forEach((name, tier) -> tiers.add(
+        new PriorityScheduler.Tier(name, tier.weight(), tier.maxQueued(), tier.timeout())));
+    return tiers;
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.boot2.priority;
+
+import com.example.boot2.domain.Status;
+import com.example.boot2.util.RateLimitedLogger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Admits validation requests through the endpoint's PriorityScheduler, by the tier of the
+ * client. The client is the common name (CN) of the client certificate subject.
+ * Runs last, so malformed requests have already been turned away by the fast path.
+ * A rejected request gets the same 503 (and 'Retry-After') as when a bulkhead is full.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "priority.enabled", havingValue = "true")
+public class PriorityFilter extends OncePerRequestFilter {
+
+  static final String CERTIFICATES_ATTRIBUTE = "javax.servlet.request.X509Certificate";
+
+  private static final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+  private final RateLimitedLogger rejectionLogger = new RateLimitedLogger(
+      LoggerFactory.getLogger(PriorityFilter.class), Duration.ofSeconds(10), 10);
+
+  private final PriorityScheduler emailScheduler;
+  private final PriorityScheduler statusScheduler;
+  private final String defaultTier;
+  private final Map<String, String> clientTiers = new HashMap<>();
+  private final Map<String, byte[]> rejectionBodies = new HashMap<>();
+
+  /**
+   * Create the filter, with a precomputed rejection body for each tier.
+   */
+  public PriorityFilter(@Qualifier("emailPriorityScheduler") PriorityScheduler emailScheduler,
+                        @Qualifier("statusPriorityScheduler") PriorityScheduler statusScheduler,
+                        PriorityProperties properties, ObjectMapper objectMapper) {
+    this.emailScheduler = emailScheduler;
+    this.statusScheduler = statusScheduler;
+    this.defaultTier = properties.defaultTier();
+    properties.tiers().forEach((tier, tierProperties) -> {
+      tierProperties.clients().forEach(client -> clientTiers.put(client, tier));
+      rejectionBodies.put(tier, rejectionBody(objectMapper, tier));
+    });
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    var path = urlPathHelper.getPathWithinApplication(request);
+    return !path.startsWith("/status/") && !path.startsWith("/email/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var scheduler = urlPathHelper.getPathWithinApplication(request).startsWith("/email/")
+        ? emailScheduler : statusScheduler;
+    var tier = tier(request);
+    PriorityScheduler.Admission admission;
+    try {
+      admission = scheduler.admit(tier);
+    } catch (PriorityRejectedException ex) {
+      rejectionLogger.warn("Rejected request for {} tier", tier);
+      var body = rejectionBodies.get(tier);
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+      return;
+    }
+    try (admission) {
+      filterChain.doFilter(request, response);
+    }
+  }
+
+  /**
+   * The tier of the client, from the first (the client's own) certificate.
+   */
+  String tier(HttpServletRequest request) {
+    if (request.getAttribute(CERTIFICATES_ATTRIBUTE) instanceof X509Certificate[] certificates
+        && certificates.length > 0) {
+      var client = commonName(certificates[0]);
+      if (client != null) {
+        return clientTiers.getOrDefault(client, defaultTier);
+      }
+    }
+    return defaultTier;
+  }
+
+  private static String commonName(X509Certificate certificate) {
+    try {
+      var name = new LdapName(certificate.getSubjectX500Principal().getName());
+      for (var rdn : name.getRdns()) {
+        if ("CN".equalsIgnoreCase(rdn.getType())) {
+          return rdn.getValue().toString();
+        }
+      }
+      return null;
+    } catch (InvalidNameException ex) {
+      return null;
+    }
+  }
+
+  private static byte[] rejectionBody(ObjectMapper objectMapper, String tier) {
+    try {
+      return objectMapper.writeValueAsBytes(new Status(false,
+          Optional.of(new PriorityRejectedException(tier).getMessage())));
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.boot2.priority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The client tiers for priority scheduling, i.e.
+ * <pre>
+ *   priority.email.max-concurrent=60
+ *   priority.status.max-concurrent=60
+ *   priority.tiers.interactive.weight=8
+ *   priority.tiers.interactive.clients=checkout-service,signup-service
+ *   priority.tiers.batch.weight=1
+ * </pre>
+ * Clients are matched on the common name (CN) of their certificate subject, clients that are
+ * not listed (or have no certificate) are in the 'default-tier'.
+ * Each endpoint is scheduled separately, with its own 'max-concurrent' and its own queue (of
+ * up to 'max-queued') for each tier.
+ */
+@ConstructorBinding
+@ConfigurationProperties("priority")
+public record PriorityProperties(@DefaultValue EndpointProperties email,
+                                 @DefaultValue EndpointProperties status,
+                                 @DefaultValue("batch") String defaultTier,
+                                 Map<String, TierProperties> tiers) {
+
+  /**
+   * How many requests for an endpoint are admitted at a time.
+   */
+  @ConstructorBinding
+  public record EndpointProperties(@DefaultValue("60") int maxConcurrent) {
+  }
+
+  /**
+   * The share of turns, queue limits and clients of a tier.
+   */
+  @ConstructorBinding
+  public record TierProperties(@DefaultValue("1") int weight,
+                               @DefaultValue("20") int maxQueued,
+                               @DefaultValue("100ms") Duration timeout,
+                               @DefaultValue List<String> clients) {
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.boot2.priority;
+
+/**
+ * Thrown when a PriorityScheduler turns a request away, its tier's queue is full or the wait
+ * for a turn timed out.
+ * There is no stack trace, it is expected under load and is just mapped to a response.
+ */
+public class PriorityRejectedException extends RuntimeException {
+
+  public PriorityRejectedException(String tierName) {
+    super("Too many requests for " + tierName + " tier, try again later", null, false, false);
+  }
+}
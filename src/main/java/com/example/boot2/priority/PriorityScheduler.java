@@ -0,0 +1,274 @@
+package com.example.boot2.priority;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits up to 'maxConcurrent' requests for one endpoint at a time, from a separate queue for
+ * each tier of client. When a request finishes, the next request is taken from the queues by
+ * (smooth) weighted round robin; so a tier with weight 8 gets eight turns for every one turn of
+ * a tier with weight 1, but no tier with requests waiting is ever starved.
+ * Each tier has its own queue limit and timeout, so a flood from one tier is rejected
+ * (with a PriorityRejectedException) without using up the queue space of the others.
+ * There is a scheduler per endpoint, so a backlog on one endpoint never holds up the other.
+ */
+public class PriorityScheduler implements MeterBinder {
+
+  private final String endpoint;
+  private final int maxConcurrent;
+  private final Map<String, TierQueue> tiers = new LinkedHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+
+  //Guarded by the lock.
+  private int available;
+  private int waiting;
+
+  /**
+   * Create a scheduler admitting 'maxConcurrent' requests for the endpoint, from the tiers
+   * supplied. The metrics are tagged with the endpoint name.
+   */
+  public PriorityScheduler(final String endpoint, final int maxConcurrent,
+                           final List<Tier> tiers) {
+    if (maxConcurrent < 1 || tiers.isEmpty()) {
+      throw new IllegalArgumentException(
+          "max concurrent must be greater than 0 and there must be at least one tier");
+    }
+    this.endpoint = endpoint;
+    this.maxConcurrent = maxConcurrent;
+    this.available = maxConcurrent;
+    tiers.forEach(tier -> this.tiers.put(tier.name(), new TierQueue(tier)));
+  }
+
+  /**
+   * Wait for a turn for a request of the tier, close the admission when the request is done.
+   * Throws PriorityRejectedException if the tier's queue is full or the wait times out.
+   */
+  public Admission admit(final String tierName) {
+    var tier = tiers.get(tierName);
+    if (tier == null) {
+      throw new IllegalArgumentException("unknown tier " + tierName);
+    }
+    long startTime = System.nanoTime();
+    Waiter waiter;
+    lock.lock();
+    try {
+      if (available > 0 && waiting == 0) {
+        available--;
+        return new Admission(tier, startTime);
+      }
+      if (tier.queue.size() >= tier.tier.maxQueued()) {
+        throw tier.reject();
+      }
+      waiter = new Waiter(Thread.currentThread());
+      tier.queue.add(waiter);
+      waiting++;
+    } finally {
+      lock.unlock();
+    }
+
+    await(tier, waiter, startTime);
+    if (tier.waitTimer != null) {
+      tier.waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+    return new Admission(tier, startTime);
+  }
+
+  private void await(final TierQueue tier, final Waiter waiter, final long startTime) {
+    var deadline = startTime + tier.tier.timeout().toNanos();
+    while (!waiter.admitted) {
+      var remaining = deadline - System.nanoTime();
+      var interrupted = Thread.interrupted();
+      if (remaining <= 0 || interrupted) {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+          //Admitted just as it timed out, so take the turn rather than lose it.
+          if (waiter.admitted) {
+            return;
+          }
+          tier.queue.remove(waiter);
+          waiting--;
+          throw tier.reject();
+        } finally {
+          lock.unlock();
+        }
+      }
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+
+  private void release() {
+    lock.lock();
+    try {
+      var next = nextTier();
+      if (next == null) {
+        available++;
+      } else {
+        var waiter = next.queue.poll();
+        waiting--;
+        waiter.admitted = true;
+        LockSupport.unpark(waiter.thread);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Smooth weighted round robin over the tiers with requests waiting.
+   */
+  private TierQueue nextTier() {
+    TierQueue next = null;
+    var totalWeight = 0;
+    for (TierQueue tier : tiers.values()) {
+      if (!tier.queue.isEmpty()) {
+        tier.currentWeight += tier.tier.weight();
+        totalWeight += tier.tier.weight();
+        if (next == null || tier.currentWeight > next.currentWeight) {
+          next = tier;
+        }
+      }
+    }
+    if (next != null) {
+      next.currentWeight -= totalWeight;
+    }
+    return next;
+  }
+
+  /**
+   * The number of requests currently admitted.
+   */
+  public int active() {
+    lock.lock();
+    try {
+      return maxConcurrent - available;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * The number of requests of the tier waiting for a turn.
+   */
+  public int queued(final String tierName) {
+    lock.lock();
+    try {
+      return tiers.get(tierName).queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("priority.utilization", this, scheduler -> (double) scheduler.active()
+            / scheduler.maxConcurrent)
+        .tag("endpoint", endpoint)
+        .description("Requests admitted as a fraction of the maximum allowed")
+        .register(registry);
+    for (TierQueue tier : tiers.values()) {
+      var name = tier.tier.name();
+      Gauge.builder("priority.queued", this, scheduler -> scheduler.queued(name))
+          .tag("endpoint", endpoint).tag("tier", name)
+          .description("Requests of the tier waiting for a turn")
+          .register(registry);
+      FunctionCounter.builder("priority.rejections", tier.rejections, LongAdder::sum)
+          .tag("endpoint", endpoint).tag("tier", name)
+          .description("Requests of the tier rejected, queue full or timed out")
+          .register(registry);
+      tier.waitTimer = Timer.builder("priority.wait")
+          .tag("endpoint", endpoint).tag("tier", name)
+          .description("Time requests of the tier waited for a turn")
+          .register(registry);
+      tier.latencyTimer = Timer.builder("priority.latency")
+          .tag("endpoint", endpoint).tag("tier", name)
+          .description("Time from arrival to completion of requests of the tier")
+          .publishPercentileHistogram()
+          .register(registry);
+    }
+  }
+
+  /**
+   * A tier of client, with its share of the turns and limits on its queue.
+   */
+  public record Tier(String name, int weight, int maxQueued, Duration timeout) {
+
+    /**
+     * Tier, checking the weight and queue limit are sensible.
+     */
+    public Tier {
+      if (weight < 1 || maxQueued < 0) {
+        throw new IllegalArgumentException(
+            "weight must be greater than 0 and max queued must not be negative");
+      }
+    }
+  }
+
+  /**
+   * A turn for a request, this must be closed (once) when the request is done.
+   */
+  public final class Admission implements AutoCloseable {
+
+    private final TierQueue tier;
+    private final long startTime;
+    private boolean closed;
+
+    private Admission(final TierQueue tier, final long startTime) {
+      this.tier = tier;
+      this.startTime = startTime;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release();
+        if (tier.latencyTimer != null) {
+          tier.latencyTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+      }
+    }
+  }
+
+  private static final class TierQueue {
+    private final Tier tier;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final LongAdder rejections = new LongAdder();
+    private int currentWeight;
+    private volatile Timer waitTimer;
+    private volatile Timer latencyTimer;
+
+    private TierQueue(final Tier tier) {
+      this.tier = tier;
+    }
+
+    private PriorityRejectedException reject() {
+      rejections.increment();
+      return new PriorityRejectedException(tier.name());
+    }
+  }
+
+  private static final class Waiter {
+    private final Thread thread;
+    private volatile boolean admitted;
+
+    private Waiter(final Thread thread) {
+      this.thread = thread;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.boot2.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for a cache lookup, hit or miss.
+ */
+@Name("com.example.boot2.CacheAccess")
+@Label("Cache Access")
+@Category("Boot2")
+@Description("A lookup in one of the caches")
+public class CacheAccessEvent extends jdk.jfr.Event {
+
+  @Label("Cache")
+  public String cache;
+
+  @Label("Hit")
+  public boolean hit;
+}
@@ -0,0 +1,218 @@
+package com.example.boot2.profiling;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to profile a live pod with JDK Flight Recorder, without a restart.
+ * <ul>
+ *   <li>start - starts a recording (if one is not already running)</li>
+ *   <li>dump - dumps the recording so far to a .jfr file in the pod, returns its path</li>
+ *   <li>stop - stops recording, what has been recorded is kept for a final dump</li>
+ *   <li>discard - throws the recording away, along with the dump file</li>
+ * </ul>
+ * A recording shows stack traces, class names and thread names; so this endpoint is only
+ * exposed over JMX (see management.endpoints.jmx.exposure.include) and never over the web.
+ * Copy a dump off the pod with 'kubectl cp'.
+ *
+ * The recording uses the JDK 'profile' settings (GC, locks, method sampling) plus the
+ * Boot2 events with the configured thresholds; less the events that capture the environment
+ * variables, system properties and command line, as those can carry secrets.
+ * It is bounded by age and size, so it can be left running without filling the disk.
+ * By default padding events are only recorded when a thread oversleeps the 10ms window.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+  private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+  //These record environment variables, system properties and JVM arguments, i.e. secrets.
+  private static final Map<String, String> SECRET_BEARING_EVENTS = Map.of(
+      "jdk.InitialEnvironmentVariable#enabled", "false",
+      "jdk.InitialSystemProperty#enabled", "false",
+      "jdk.JVMInformation#enabled", "false");
+
+  private final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+  private final Duration validationThreshold;
+  private final Duration cacheThreshold;
+  private final Duration paddingThreshold;
+  private final Duration maxAge;
+  private final long maxSizeMegaBytes;
+
+  private Recording recording;
+  private Path lastDump;
+
+  /**
+   * Create the endpoint with the event thresholds and limits on the recording.
+   */
+  public FlightRecorderEndpoint(
+      @Value("${profiling.jfr.validation-threshold:1ms}") Duration validationThreshold,
+      @Value("${profiling.jfr.cache-threshold:1ms}") Duration cacheThreshold,
+      @Value("${profiling.jfr.padding-threshold:15ms}") Duration paddingThreshold,
+      @Value("${profiling.jfr.max-age:10m}") Duration maxAge,
+      @Value("${profiling.jfr.max-size-megabytes:100}") long maxSizeMegaBytes) {
+    this.validationThreshold = validationThreshold;
+    this.cacheThreshold = cacheThreshold;
+    this.paddingThreshold = paddingThreshold;
+    this.maxAge = maxAge;
+    this.maxSizeMegaBytes = maxSizeMegaBytes;
+  }
+
+  /**
+   * Start a recording, the max age and size can be reduced (but not increased) per recording.
+   * Starting again after a stop replaces the stopped recording.
+   */
+  @WriteOperation
+  public synchronized Map<String, Object> start(@Nullable Long maxAgeSeconds,
+                                                @Nullable Long maxSizeMegaBytes) {
+    if (recording == null || recording.getState() != RecordingState.RUNNING) {
+      if (recording != null) {
+        recording.close();
+      }
+      recording = new Recording(profileSettings());
+      recording.setName("boot2");
+      recording.setToDisk(true);
+      recording.setMaxAge(maxAgeSeconds == null ? maxAge
+          : min(Duration.ofSeconds(maxAgeSeconds), maxAge));
+      recording.setMaxSize(BYTES_IN_MEGABYTE * (maxSizeMegaBytes == null ? this.maxSizeMegaBytes
+          : Math.min(maxSizeMegaBytes, this.maxSizeMegaBytes)));
+      recording.enable(ValidationEvent.class).withThreshold(validationThreshold);
+      recording.enable(CacheAccessEvent.class).withThreshold(cacheThreshold);
+      recording.enable(PaddingEvent.class).withThreshold(paddingThreshold);
+      recording.start();
+      logger.info("Started flight recording, max age {}, max size {} bytes",
+          recording.getMaxAge(), recording.getMaxSize());
+    }
+    return status();
+  }
+
+  /**
+   * Dump what has been recorded so far to a file, returning its path and size; nothing if
+   * there is no recording. Works on a running or a stopped recording.
+   */
+  @ReadOperation
+  public synchronized Map<String, Object> dump() {
+    if (recording == null || (recording.getState() != RecordingState.RUNNING
+        && recording.getState() != RecordingState.STOPPED)) {
+      return null;
+    }
+    try {
+      //Only ever keep the one dump file around.
+      deleteLastDump();
+      lastDump = Files.createTempFile("boot2-", ".jfr");
+      recording.dump(lastDump);
+      Map<String, Object> dump = new LinkedHashMap<>();
+      dump.put("path", lastDump.toString());
+      dump.put("size", Files.size(lastDump));
+      return dump;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Stop recording, keeping what has been recorded so it can still be dumped.
+   * Only a JMX operation: over the web this would clash with start.
+   */
+  @WriteOperation
+  public synchronized Map<String, Object> stop() {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+      logger.info("Stopped flight recording");
+    }
+    return status();
+  }
+
+  /**
+   * Throw the recording away (stopping it if need be), along with the last dump.
+   */
+  @DeleteOperation
+  public synchronized Map<String, Object> discard() {
+    if (recording != null) {
+      recording.close();
+      logger.info("Discarded flight recording");
+    }
+    try {
+      deleteLastDump();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return status();
+  }
+
+  /**
+   * On shutdown close any recording (it holds native buffers and a disk repository) and delete
+   * the dump, so neither outlives the application.
+   */
+  @PreDestroy
+  public synchronized void close() {
+    if (recording != null) {
+      recording.close();
+    }
+    try {
+      deleteLastDump();
+    } catch (IOException ex) {
+      logger.warn("Unable to delete flight recording dump {}", lastDump, ex);
+    }
+  }
+
+  private void deleteLastDump() throws IOException {
+    if (lastDump != null) {
+      Files.deleteIfExists(lastDump);
+      lastDump = null;
+    }
+  }
+
+  private Map<String, Object> status() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("state", recording == null ? RecordingState.CLOSED : recording.getState());
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      status.put("startTime", recording.getStartTime());
+      status.put("maxAge", recording.getMaxAge());
+      status.put("maxSize", recording.getMaxSize());
+    } else if (recording != null && recording.getState() == RecordingState.STOPPED) {
+      status.put("startTime", recording.getStartTime());
+      status.put("stopTime", recording.getStopTime());
+    }
+    return status;
+  }
+
+  private static Map<String, String> profileSettings() {
+    try {
+      Map<String, String> settings =
+          new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+      settings.putAll(SECRET_BEARING_EVENTS);
+      return settings;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (ParseException ex) {
+      throw new IllegalStateException("Unable to read JFR profile settings", ex);
+    }
+  }
+
+  private static Duration min(Duration first, Duration second) {
+    return first.compareTo(second) < 0 ? first : second;
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.boot2.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for a thread sleeping to pad out the response time.
+ */
+@Name("com.example.boot2.Padding")
+@Label("Padding")
+@Category("Boot2")
+@Description("A thread sleeping to pad out the response time")
+public class PaddingEvent extends jdk.jfr.Event {
+
+  @Label("Function Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  public long functionDuration;
+}
@@ -0,0 +1,38 @@
+package com.example.boot2.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for a validator checking a value (i.e. not served from the cache).
+ */
+@Name("com.example.boot2.Validation")
+@Label("Validation")
+@Category("Boot2")
+@Description("A validator checking a value")
+public class ValidationEvent extends jdk.jfr.Event {
+
+  @Label("Validator")
+  public String validator;
+
+  @Label("Value Length")
+  public int valueLength;
+
+  @Label("Acceptable")
+  public boolean acceptable;
+
+  /**
+   * End the event and commit it, if it is enabled and over the threshold.
+   */
+  public void complete(String validator, String value, boolean acceptable) {
+    end();
+    if (shouldCommit()) {
+      this.validator = validator;
+      this.valueLength = value == null ? 0 : value.length();
+      this.acceptable = acceptable;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.boot2.shadow;
+
+import com.example.boot2.domain.EmailValidator;
+import com.example.boot2.domain.Status;
+import com.example.boot2.domain.UserIdentifierValidator;
+import com.example.boot2.domain.ValueValidator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Configures shadow evaluation of candidate validators.
+ * Set 'shadow.email.candidate-regex' (email addresses that must match) and/or
+ * 'shadow.status.candidate-regex' (user identifiers that must match) to try out new rules on a
+ * sample ('shadow.sample-rate') of the live traffic. Without these nothing is compared.
+ * The candidate is timed against the current (primary) rules, under 'shadow.latency'.
+ * The shadow work runs on a small bounded pool, when that is full the work is just dropped.
+ * That pool belongs to the ShadowEvaluation (it is not a bean, so it cannot be picked up as the
+ * application's task executor) and is shut down with it.
+ */
+@Configuration
+public class ShadowConfiguration {
+
+  private final Status candidateValid = new Status(true, Optional.empty());
+
+  private final Status candidateInvalid =
+      new Status(false, Optional.of("Fails Candidate Check"));
+
+  /**
+   * The shadow evaluation for each endpoint that has a candidate configured.
+   */
+  @Bean
+  ShadowEvaluation shadowEvaluation(
+      MeterRegistry meterRegistry,
+      EmailValidator emailValidator,
+      UserIdentifierValidator userIdentifierValidator,
+      @Value("${shadow.sample-rate:0.01}") double sampleRate,
+      @Value("${shadow.threads:1}") int threads,
+      @Value("${shadow.queue-capacity:1000}") int queueCapacity,
+      @Value("${shadow.email.candidate-regex:}") String emailCandidateRegex,
+      @Value("${shadow.status.candidate-regex:}") String statusCandidateRegex) {
+
+    //Threads are only started when the first shadow work is queued.
+    var shadowExecutor = shadowExecutor(threads, queueCapacity, meterRegistry);
+    Map<String, BiConsumer<String, Status>> evaluators = new HashMap<>();
+    if (!emailCandidateRegex.isBlank()) {
+      evaluators.put("email", new ShadowEvaluator("email", emailValidator.delegateValidator(),
+          candidate(emailCandidateRegex), sampleRate, shadowExecutor, meterRegistry));
+    }
+    if (!statusCandidateRegex.isBlank()) {
+      evaluators.put("status", new ShadowEvaluator("status",
+          userIdentifierValidator.delegateValidator(), candidate(statusCandidateRegex),
+          sampleRate, shadowExecutor, meterRegistry));
+    }
+    return new ShadowEvaluation(evaluators, shadowExecutor);
+  }
+
+  /**
+   * The executor for the shadow work; bounded, and drops work rather than ever blocking.
+   */
+  private ThreadPoolExecutor shadowExecutor(final int threads, final int queueCapacity,
+                                            final MeterRegistry meterRegistry) {
+    var threadFactory = new CustomizableThreadFactory("shadow-");
+    threadFactory.setDaemon(true);
+
+    var dropped = new LongAdder();
+    FunctionCounter.builder("shadow.dropped", dropped, LongAdder::sum)
+        .description("Shadow evaluations dropped because the shadow executor was full")
+        .register(meterRegistry);
+
+    return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+        (work, executor) -> dropped.increment());
+  }
+
+  private ValueValidator candidate(final String regex) {
+    var pattern = Pattern.compile(regex);
+    return new ValueValidator(value -> pattern.matcher(value).matches(),
+        () -> candidateValid, () -> candidateInvalid);
+  }
+}
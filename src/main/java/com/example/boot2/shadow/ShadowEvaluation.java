@@ -0,0 +1,40 @@
+package com.example.boot2.shadow;
+
+import com.example.boot2.domain.Status;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+
+/**
+ * The shadow evaluators for each endpoint, and the executor they run on.
+ */
+public class ShadowEvaluation implements Closeable {
+
+  private static final BiConsumer<String, Status> NONE = (value, status) -> {
+  };
+
+  private final Map<String, BiConsumer<String, Status>> evaluators;
+  private final ExecutorService executor;
+
+  public ShadowEvaluation(Map<String, BiConsumer<String, Status>> evaluators,
+                          ExecutorService executor) {
+    this.evaluators = Map.copyOf(evaluators);
+    this.executor = executor;
+  }
+
+  /**
+   * The evaluator for the endpoint, or one that does nothing if there is no candidate.
+   */
+  public BiConsumer<String, Status> forEndpoint(String endpoint) {
+    return evaluators.getOrDefault(endpoint, NONE);
+  }
+
+  /**
+   * Stop the shadow executor, any queued comparisons are dropped.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
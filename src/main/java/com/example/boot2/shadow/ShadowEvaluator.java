@@ -0,0 +1,89 @@
+package com.example.boot2.shadow;
+
+import com.example.boot2.domain.Status;
+import com.example.boot2.domain.ValueValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * Compares a candidate validator with the primary one, on a sample of the live traffic.
+ * The comparison is handed to an executor once the primary verdict is known, so the request
+ * itself does no more than decide whether to sample and queue the work.
+ * The candidate is compared with the verdict the primary has already given.
+ * Both are timed on the shadow thread, against the same value, so their latencies can be
+ * compared like for like (the primary's live latency includes the cache, index and padding).
+ * The primary is run there without statistics, so it does not count twice in its own rule set.
+ */
+public class ShadowEvaluator implements BiConsumer<String, Status> {
+
+  private final ValueValidator primary;
+  private final ValueValidator candidate;
+  private final double sampleRate;
+  private final Executor executor;
+
+  private final Counter evaluations;
+  private final Counter candidateStricter;
+  private final Counter candidateLaxer;
+  private final Timer primaryLatency;
+  private final Timer candidateLatency;
+
+  /**
+   * Create a shadow evaluator for the endpoint, the metrics are tagged with the endpoint name.
+   */
+  public ShadowEvaluator(final String endpoint, final ValueValidator primary,
+                         final ValueValidator candidate, final double sampleRate,
+                         final Executor executor, final MeterRegistry meterRegistry) {
+    this.primary = primary.withoutStatistics();
+    this.candidate = candidate;
+    this.sampleRate = sampleRate;
+    this.executor = executor;
+
+    evaluations = Counter.builder("shadow.evaluations")
+        .tag("endpoint", endpoint)
+        .description("Values checked by both the primary and candidate validators")
+        .register(meterRegistry);
+    candidateStricter = Counter.builder("shadow.disagreements")
+        .tag("endpoint", endpoint).tag("candidate", "rejected")
+        .description("Values where the candidate validator disagreed with the primary")
+        .register(meterRegistry);
+    candidateLaxer = Counter.builder("shadow.disagreements")
+        .tag("endpoint", endpoint).tag("candidate", "accepted")
+        .description("Values where the candidate validator disagreed with the primary")
+        .register(meterRegistry);
+    primaryLatency = latency(endpoint, "primary", meterRegistry);
+    candidateLatency = latency(endpoint, "candidate", meterRegistry);
+  }
+
+  @Override
+  public void accept(final String value, final Status primaryStatus) {
+    if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+      executor.execute(() -> compare(value, primaryStatus.acceptable()));
+    }
+  }
+
+  private void compare(final String value, final boolean primaryAcceptable) {
+    primaryLatency.record(() -> primary.validate(value).get());
+    var candidateAcceptable = candidateLatency.record(() -> candidate.validate(value).get())
+        .acceptable();
+
+    evaluations.increment();
+    if (primaryAcceptable && !candidateAcceptable) {
+      candidateStricter.increment();
+    } else if (!primaryAcceptable && candidateAcceptable) {
+      candidateLaxer.increment();
+    }
+  }
+
+  private static Timer latency(final String endpoint, final String validator,
+                               final MeterRegistry meterRegistry) {
+    return Timer.builder("shadow.latency")
+        .tag("endpoint", endpoint).tag("validator", validator)
+        .description("Time taken by the validator, measured on the shadow thread")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
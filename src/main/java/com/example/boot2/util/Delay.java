@@ -1,9 +1,12 @@
 package com.example.boot2.util;
 
+import com.example.boot2.profiling.PaddingEvent;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * Ensures that the function called always takes 'delayPeriod'.
+ * Optionally counts how many threads are currently sleeping to pad out the delay.
  */
 public class Delay<T, R> implements Function<T, R> {
 
@@ -11,9 +14,19 @@ public class Delay<T, R> implements Function<T, R> {
 
   private final FunctionTimer<T, R> functionTimer;
 
+  private final AtomicInteger paddingDepth;
+
   public Delay(long delayPeriod, Function<T, R> functionToDelay) {
+    this(delayPeriod, functionToDelay, new AtomicInteger());
+  }
+
+  /**
+   * Delay that keeps 'paddingDepth' up to date with the number of threads currently padding.
+   */
+  public Delay(long delayPeriod, Function<T, R> functionToDelay, AtomicInteger paddingDepth) {
     this.delayCalculator = new DelayCalculator(delayPeriod);
     this.functionTimer = new FunctionTimer<>(functionToDelay);
+    this.paddingDepth = paddingDepth;
   }
 
   @Override
@@ -27,7 +40,19 @@ public class Delay<T, R> implements Function<T, R> {
 
       //Sometimes it can take longer than the delayPeriod
       if (delay.delayMilliSeconds() >= 0 || delay.delayNanoSeconds() >= 0) {
-        Thread.sleep(delay.delayMilliSeconds(), delay.delayNanoSeconds());
+        var event = new PaddingEvent();
+        event.begin();
+        paddingDepth.incrementAndGet();
+        try {
+          Thread.sleep(delay.delayMilliSeconds(), delay.delayNanoSeconds());
+        } finally {
+          paddingDepth.decrementAndGet();
+          event.end();
+          if (event.shouldCommit()) {
+            event.functionDuration = result.functionDurationNanoSeconds();
+            event.commit();
+          }
+        }
       }
     } catch (InterruptedException interruptedException) {
       //Ignore
@@ -0,0 +1,73 @@
+package com.example.boot2.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * Limits how many messages get written to a logger in each period.
+ * When flooded with bad requests, logging every one costs more than dealing with the request.
+ * Messages over the limit are just counted and the count is logged in the next period.
+ */
+public class RateLimitedLogger {
+
+  private final Logger logger;
+  private final long periodNanoSeconds;
+  private final int messagesPerPeriod;
+
+  private final AtomicLong periodStart;
+  private final AtomicInteger messagesInPeriod = new AtomicInteger();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  /**
+   * Create a rate limited logger, that writes at most 'messagesPerPeriod' in each 'period'.
+   */
+  public RateLimitedLogger(final Logger logger, final Duration period,
+                           final int messagesPerPeriod) {
+    if (messagesPerPeriod < 1) {
+      throw new IllegalArgumentException("messages per period must be greater than 0");
+    }
+    this.logger = logger;
+    this.periodNanoSeconds = period.toNanos();
+    this.messagesPerPeriod = messagesPerPeriod;
+    this.periodStart = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Log at error level, if the limit for this period has not been reached.
+   */
+  public void error(final String format, final Object... arguments) {
+    if (logger.isErrorEnabled() && acquire()) {
+      logger.error(format, arguments);
+    }
+  }
+
+  /**
+   * Log at warn level, if the limit for this period has not been reached.
+   */
+  public void warn(final String format, final Object... arguments) {
+    if (logger.isWarnEnabled() && acquire()) {
+      logger.warn(format, arguments);
+    }
+  }
+
+  private boolean acquire() {
+    long now = System.nanoTime();
+    long start = periodStart.get();
+    if (now - start >= periodNanoSeconds && periodStart.compareAndSet(start, now)) {
+      messagesInPeriod.set(0);
+      long suppressedCount = suppressed.getAndSet(0);
+      if (suppressedCount > 0) {
+        logger.warn("Suppressed {} log messages in the last {} ms", suppressedCount,
+            (now - start) / 1000000L);
+      }
+    }
+
+    if (messagesInPeriod.incrementAndGet() <= messagesPerPeriod) {
+      return true;
+    }
+    suppressed.incrementAndGet();
+    return false;
+  }
+}
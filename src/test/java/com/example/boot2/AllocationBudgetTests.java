@@ -0,0 +1,187 @@
+package com.example.boot2;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.example.boot2.domain.Status;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Checks how much each hot path allocates per request, against the committed budgets in
+ * 'allocation-budgets.properties'. Functional tests do not notice extra garbage, this does.
+ *
+ * The controller beans are called directly, so each request goes through the method validation
+ * proxy, the bulkhead, the verdict index, the cached validators and the shadow hook (sampling
+ * every request, the worst case); only the servlet layer is left out. The padding is set to
+ * 1 nanosecond so it does not sleep.
+ * Allocation is measured on the calling thread only, after a warm up so the JIT has done
+ * its escape analysis. What the JIT manages depends on what else has run in the JVM, so this
+ * is run in a JVM of its own (the Gradle task allocationBudgets, part of check) and not by the
+ * test task.
+ *
+ * Run with the system property 'allocation.budgets.record' set to a file (see the Gradle task
+ * recordAllocationBudgets) to write new budgets from what is measured, plus BUDGET_MARGIN.
+ */
+@SpringBootTest(properties = {"run.system=prd", "external.system=prd",
+    "validation.padding=1ns", "shadow.sample-rate=1.0",
+    "shadow.email.candidate-regex=.*", "shadow.status.candidate-regex=.*"})
+class AllocationBudgetTests {
+
+  private static final int WARM_UP_CALLS = 2000;
+  private static final int MEASURED_CALLS = 1000;
+
+  private static final double BUDGET_MARGIN = 0.2;
+  private static final int BUDGET_ROUNDING = 64;
+
+  private final Logger logger = LoggerFactory.getLogger(AllocationBudgetTests.class);
+
+  private final com.sun.management.ThreadMXBean threadMxBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @Autowired
+  BasicProcessController basicProcessController;
+
+  @Autowired
+  EmailValidationController emailValidationController;
+
+  @Autowired
+  CacheManager cacheManager;
+
+  @BeforeEach
+  void clearCaches() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  @Test
+  void testHotPathsWithinAllocationBudgets() throws IOException {
+    assumeTrue(threadMxBean.isThreadAllocatedMemorySupported(),
+        "per thread allocation counters are not supported by this JVM");
+    threadMxBean.setThreadAllocatedMemoryEnabled(true);
+
+    var budgets = PropertiesLoaderUtils.loadProperties(
+        new ClassPathResource("allocation-budgets.properties"));
+
+    Function<String, ResponseEntity<Status>> status =
+        basicProcessController::checkInputValueStatus;
+    Function<String, ResponseEntity<Status>> email =
+        emailValidationController::checkEmailAddress;
+
+    List<Measurement> measurements = new ArrayList<>();
+    measurements.add(hit("status.hit.valid", status, "SteveLimb", budgets));
+    measurements.add(hit("status.hit.invalid", status, "SteveXLimb", budgets));
+    measurements.add(miss("status.miss.valid", status, "SteveLimb", budgets));
+    measurements.add(miss("status.miss.invalid", status, "SteveXLimb", budgets));
+    measurements.add(hit("email.hit.valid", email, "steve@mail.com", budgets));
+    measurements.add(hit("email.hit.invalid", email, "steve..limb@mail.com", budgets));
+    measurements.add(miss("email.miss.valid", email, "steve@mail.com", budgets));
+    measurements.add(miss("email.miss.invalid", email, "steve..limb@mail.com", budgets));
+
+    var report = new StringBuilder(String.format("%nAllocation per request (bytes)%n"));
+    report.append(String.format("%-20s %10s %10s%n", "path", "measured", "budget"));
+    measurements.forEach(measurement -> report.append(String.format("%-20s %10d %10d %s%n",
+        measurement.path(), measurement.bytesPerCall(), measurement.budget(),
+        measurement.withinBudget() ? "" : "OVER BUDGET")));
+    logger.info("{}", report);
+
+    var recordTo = System.getProperty("allocation.budgets.record");
+    if (recordTo != null) {
+      record(Path.of(recordTo), measurements);
+      return;
+    }
+    assertTrue(measurements.stream().allMatch(Measurement::withinBudget), report::toString);
+  }
+
+  /**
+   * Write the measured baseline and the budgets that follow from it.
+   */
+  private void record(final Path file, final List<Measurement> measurements)
+      throws IOException {
+    List<String> lines = new ArrayList<>(List.of(
+        "#Bytes allocated per request through the controller beans, on the calling thread.",
+        "#AllocationBudgetTests fails if a path allocates more than its budget.",
+        String.format("#Each budget is the measured baseline plus %d%%, rounded up to %d bytes.",
+            Math.round(BUDGET_MARGIN * 100), BUDGET_ROUNDING),
+        "#Written by './gradlew recordAllocationBudgets'; when a change really needs more,",
+        "#re-record and commit the new baseline with the change."));
+    for (Measurement measurement : measurements) {
+      lines.add("");
+      lines.add("#baseline " + measurement.bytesPerCall());
+      lines.add(measurement.path() + "=" + budgetFor(measurement.bytesPerCall()));
+    }
+    Files.write(file, lines);
+    logger.info("Recorded allocation budgets to {}", file);
+  }
+
+  private static long budgetFor(final long baseline) {
+    var withMargin = (long) Math.ceil(baseline * (1 + BUDGET_MARGIN));
+    return (withMargin + BUDGET_ROUNDING - 1) / BUDGET_ROUNDING * BUDGET_ROUNDING;
+  }
+
+  /**
+   * The same value every time, so all but the very first call is a cache hit.
+   */
+  private Measurement hit(final String path,
+                          final Function<String, ResponseEntity<Status>> processor,
+                          final String value, final Properties budgets) {
+    var values = new String[WARM_UP_CALLS + MEASURED_CALLS];
+    Arrays.fill(values, value);
+    return measure(path, processor, values, budgets);
+  }
+
+  /**
+   * A different value every time (but still valid or invalid), so every call is a miss.
+   */
+  private Measurement miss(final String path,
+                           final Function<String, ResponseEntity<Status>> processor,
+                           final String value, final Properties budgets) {
+    var values = IntStream.range(0, WARM_UP_CALLS + MEASURED_CALLS)
+        .mapToObj(i -> i + value)
+        .toArray(String[]::new);
+    return measure(path, processor, values, budgets);
+  }
+
+  private Measurement measure(final String path,
+                              final Function<String, ResponseEntity<Status>> processor,
+                              final String[] values, final Properties budgets) {
+    var budget = budgets.getProperty(path);
+    if (budget == null) {
+      throw new IllegalArgumentException("no allocation budget for " + path);
+    }
+
+    for (int i = 0; i < WARM_UP_CALLS; i++) {
+      processor.apply(values[i]);
+    }
+    var threadId = Thread.currentThread().getId();
+    var before = threadMxBean.getThreadAllocatedBytes(threadId);
+    for (int i = WARM_UP_CALLS; i < values.length; i++) {
+      processor.apply(values[i]);
+    }
+    var allocated = threadMxBean.getThreadAllocatedBytes(threadId) - before;
+    return new Measurement(path, allocated / MEASURED_CALLS, Long.parseLong(budget.trim()));
+  }
+
+  private record Measurement(String path, long bytesPerCall, long budget) {
+    boolean withinBudget() {
+      return bytesPerCall <= budget;
+    }
+  }
+}
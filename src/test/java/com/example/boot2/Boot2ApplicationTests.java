@@ -2,13 +2,16 @@ package com.example.boot2;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import javax.servlet.RequestDispatcher;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
@@ -49,4 +52,19 @@ class Boot2ApplicationTests {
   void testGetStatusBadUserIdentifierLengthTooLong(@Autowired MockMvc mvc) throws Exception {
     mvc.perform(get("/status/s123456789012345678901234567890")).andExpect(status().is(412));
   }
+
+  @Test
+  void testGetStatusBadUserIdentifierRejectionBody(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/status/s"))
+        .andExpect(status().is(412))
+        .andExpect(content().json("{\"acceptable\":false,\"reasonUnacceptable\":"
+            + "\"checkInputValueStatus.userIdentifier: size must be between 2 and 30\"}"));
+  }
+
+  @Test
+  void testErrorPage(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/error").requestAttr(RequestDispatcher.ERROR_STATUS_CODE, 404))
+        .andExpect(status().is(404))
+        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML));
+  }
 }
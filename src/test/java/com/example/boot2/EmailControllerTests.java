@@ -1,6 +1,7 @@
 package com.example.boot2;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
@@ -36,4 +37,12 @@ class EmailControllerTests {
   void testGetStatusNotFoundBlank(@Autowired MockMvc mvc) throws Exception {
     mvc.perform(get("/email/ ")).andExpect(status().is(412));
   }
+
+  @Test
+  void testGetStatusBlankRejectionBody(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/email/ "))
+        .andExpect(status().is(412))
+        .andExpect(content().json("{\"acceptable\":false,\"reasonUnacceptable\":"
+            + "\"checkEmailAddress.emailAddress: must not be blank\"}"));
+  }
 }
@@ -0,0 +1,36 @@
+package com.example.boot2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import javax.servlet.RequestDispatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ServiceErrorControllerTest {
+
+  @Test
+  void testErrorPageLinksToSwaggerUi() {
+    var page = errorPage(new ServiceErrorController(true));
+    assertTrue(page.contains("href=\"/api-docs\""));
+    assertTrue(page.contains("href=\"/api-ui.html\""));
+  }
+
+  @Test
+  void testNoSwaggerUiLinkWhenSwaggerUiDisabled() {
+    var page = errorPage(new ServiceErrorController(false));
+    assertTrue(page.contains("href=\"/api-docs\""));
+    assertFalse(page.contains("/api-ui.html"));
+    assertFalse(page.contains("<br/>"));
+  }
+
+  private static String errorPage(final ServiceErrorController underTest) {
+    var request = new MockHttpServletRequest();
+    request.setAttribute(RequestDispatcher.ERROR_STATUS_CODE, 404);
+    var response = underTest.handleError(request);
+    assertEquals(404, response.getStatusCodeValue());
+    return new String(response.getBody(), StandardCharsets.UTF_8);
+  }
+}
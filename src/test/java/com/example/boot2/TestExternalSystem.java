@@ -1,5 +1,8 @@
 package com.example.boot2;
 
+import com.example.boot2.domain.Status;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
@@ -13,4 +16,9 @@ public class TestExternalSystem implements ExternalSystem {
   public String getExternalSystemName() {
     return "Test";
   }
+
+  @Override
+  public CompletableFuture<Status> call(String value) {
+    return CompletableFuture.completedFuture(new Status(true, Optional.empty()));
+  }
 }
@@ -0,0 +1,21 @@
+package com.example.boot2.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BulkValidationRunnerTest {
+
+  //2048MB overflowed an int, so has to be rejected rather than turned into a negative size.
+  @ParameterizedTest
+  @ValueSource(ints = {0, -1, 2048, Integer.MAX_VALUE})
+  void testInvalidSegmentMegaBytes(int segmentMegaBytes) {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new BulkValidationRunner(null, null, "email", "input.txt", "output.txt", 0,
+            segmentMegaBytes));
+    assertEquals("bulk.segment-megabytes must be between 1 and 2047, not " + segmentMegaBytes,
+        exception.getMessage());
+  }
+}
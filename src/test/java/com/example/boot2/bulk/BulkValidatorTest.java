@@ -0,0 +1,90 @@
+package com.example.boot2.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.boot2.domain.EmailValidation;
+import com.example.boot2.domain.Status;
+import com.example.boot2.domain.ValueValidator;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BulkValidatorTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  private final ValueValidator emailValidator = new ValueValidator(new EmailValidation(),
+      () -> new Status(true, Optional.empty()), () -> new Status(false, Optional.empty()));
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  void shutdownPool() {
+    pool.shutdown();
+  }
+
+  //Small segments so that lines are split across the segments in lots of different ways.
+  @ParameterizedTest
+  @ValueSource(ints = {1, 7, 16, 1024})
+  void testVerdictsInInputOrder(int segmentSize) throws Exception {
+    var input = Files.writeString(directory.resolve("input.txt"),
+        "abc@mail.com\r\nabc..def@mail.com\n\nabc.def@mail.org\n@mail.com");
+    var output = directory.resolve("output.txt");
+
+    var underTest = new BulkValidator(emailValidator, pool, segmentSize);
+    var result = underTest.validate(input, output);
+
+    assertEquals(5, result.lines());
+    assertEquals(2, result.acceptable());
+    assertEquals(List.of("abc@mail.com\ttrue", "abc..def@mail.com\tfalse", "\tfalse",
+        "abc.def@mail.org\ttrue", "@mail.com\tfalse"), Files.readAllLines(output));
+  }
+
+  @Test
+  void testEmptyFile() throws Exception {
+    var input = Files.createFile(directory.resolve("empty.txt"));
+    var output = directory.resolve("output.txt");
+
+    var underTest = new BulkValidator(emailValidator, pool, 16);
+
+    assertEquals(0, underTest.validate(input, output).lines());
+    assertEquals(0, Files.size(output));
+  }
+
+  @Test
+  void testInvalidSegmentSize() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new BulkValidator(emailValidator, pool, 0));
+    assertEquals("segment size must be greater than 0", exception.getMessage());
+  }
+
+  @Test
+  void testSegmentSizeTooBigToMap() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new BulkValidator(emailValidator, pool, BulkValidator.MAX_SEGMENT_SIZE + 1));
+    assertEquals("segment size must be at most 2147483647 bytes", exception.getMessage());
+  }
+
+  @Test
+  void testLineTooLongToMap() throws Exception {
+    var input = Files.writeString(directory.resolve("input.txt"),
+        "abc@mail.com\n" + "a".repeat(40) + "@mail.com\nabc@mail.com\n");
+    var output = directory.resolve("output.txt");
+
+    var underTest = new BulkValidator(emailValidator, pool, 8, 32);
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> underTest.validate(input, output));
+    assertEquals("line near byte 13 is too long, the segment would be 50 bytes,"
+        + " at most 32 can be mapped", exception.getMessage());
+  }
+}
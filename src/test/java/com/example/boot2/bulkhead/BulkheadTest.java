@@ -0,0 +1,80 @@
+package com.example.boot2.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+  @Test
+  void testCallRunsWithinBulkhead() {
+    var underTest = new Bulkhead("test", 1, 0, Duration.ofMillis(10));
+    assertEquals("AnyText", underTest.call(() -> "AnyText"));
+    assertEquals(0, underTest.active());
+  }
+
+  @Test
+  void testMaxThreadsIncludesQueued() {
+    assertEquals(90, new Bulkhead("test", 60, 30, Duration.ofMillis(10)).maxThreads());
+  }
+
+  @Test
+  void testRejectedWhenFullAndNoQueue() throws Exception {
+    var underTest = new Bulkhead("test", 1, 0, Duration.ofSeconds(10));
+    var running = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    var blocked = CompletableFuture.supplyAsync(() -> underTest.call(() -> {
+      running.countDown();
+      return await(release);
+    }));
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+
+    var exception = assertThrows(BulkheadFullException.class, () -> underTest.call(() -> true));
+    assertEquals("Too many requests for test, try again later", exception.getMessage());
+
+    release.countDown();
+    assertTrue(blocked.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testQueuedCallTimesOut() throws Exception {
+    var underTest = new Bulkhead("test", 1, 1, Duration.ofMillis(20));
+    var running = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    var blocked = CompletableFuture.supplyAsync(() -> underTest.call(() -> {
+      running.countDown();
+      return await(release);
+    }));
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+
+    assertThrows(BulkheadFullException.class, () -> underTest.call(() -> true));
+    assertEquals(0, underTest.queued());
+
+    release.countDown();
+    assertTrue(blocked.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testInvalidLimits() {
+    var timeout = Duration.ofMillis(10);
+    assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 0, 0, timeout));
+    assertThrows(IllegalArgumentException.class, () -> new Bulkhead("test", 1, -1, timeout));
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.boot2.caching;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * This is designed to check the cache insight actuator endpoint is available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CacheInsightEndpointTests {
+
+  @Test
+  void testHottestEmailDomainReported(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/email/StephenJohnLimb@mail.com")).andExpect(status().isOk());
+
+    mvc.perform(get("/actuator/cacheinsight/email"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hottest.domains[0].key").value("mail.com"));
+  }
+
+  @Test
+  void testHottestEmailAddressPseudonymised(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/email/StephenJohnLimb@mail.com")).andExpect(status().isOk());
+
+    mvc.perform(get("/actuator/cacheinsight/email"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hottest.keys[0].key").value(matchesPattern("[0-9a-f]{12}")));
+  }
+
+  @Test
+  void testUnknownCache(@Autowired MockMvc mvc) throws Exception {
+    mvc.perform(get("/actuator/cacheinsight/unknown")).andExpect(status().is(404));
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.boot2.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+  private static final Duration HALF_LIFE = Duration.ofMinutes(1);
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  void testCountMinSketchNeverUnderestimates() {
+    var underTest = new CountMinSketch(4, 64);
+    for (int i = 0; i < 1000; i++) {
+      underTest.add("key" + (i % 100));
+    }
+    for (int i = 0; i < 100; i++) {
+      assertTrue(underTest.estimate("key" + i) >= 10);
+    }
+  }
+
+  @Test
+  void testHottestKeysFound() {
+    var underTest = new HeavyHitters(3, HALF_LIFE, nanoTime::get);
+    for (int i = 0; i < 10000; i++) {
+      underTest.record("cold" + i);
+      if (i % 2 == 0) {
+        underTest.record("hot1");
+      }
+      if (i % 3 == 0) {
+        underTest.record("hot2");
+      }
+      if (i % 4 == 0) {
+        underTest.record("hot3");
+      }
+    }
+
+    var hottest = underTest.hottest();
+    assertEquals(List.of("hot1", "hot2", "hot3"),
+        hottest.stream().map(HeavyHitters.HotKey::key).toList());
+    assertTrue(hottest.get(0).estimatedCount() >= 5000);
+  }
+
+  @Test
+  void testCountMinSketchRowsAreIndependent() {
+    //With one shared 32-bit hash these keys collide in every row; Aa and BB have equal hashCodes.
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    var underTest = new CountMinSketch(4, 64);
+    for (int i = 0; i < 100; i++) {
+      underTest.add("Aa");
+    }
+    assertEquals(0, underTest.estimate("BB"));
+  }
+
+  @Test
+  void testCountMinSketchDecay() {
+    var underTest = new CountMinSketch(4, 64);
+    for (int i = 0; i < 100; i++) {
+      underTest.add("key");
+    }
+    underTest.decay(2);
+    assertEquals(25, underTest.estimate("key"));
+  }
+
+  @Test
+  void testOldHotKeysDecay() {
+    var underTest = new HeavyHitters(1, HALF_LIFE, nanoTime::get);
+    for (int i = 0; i < 100; i++) {
+      underTest.record("wasHot");
+    }
+
+    //Three half lives later the old counts are an eighth, so newer traffic overtakes them.
+    nanoTime.addAndGet(HALF_LIFE.multipliedBy(3).toNanos());
+    for (int i = 0; i < 20; i++) {
+      underTest.record("isHot");
+    }
+    assertEquals(List.of("isHot"),
+        underTest.hottest().stream().map(HeavyHitters.HotKey::key).toList());
+  }
+
+  @Test
+  void testInvalidTopK() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new HeavyHitters(0, HALF_LIFE));
+    assertEquals("top K must be greater than 0", exception.getMessage());
+  }
+
+  @Test
+  void testInvalidHalfLife() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new HeavyHitters(1, Duration.ZERO));
+    assertEquals("half life must be greater than 0", exception.getMessage());
+  }
+}
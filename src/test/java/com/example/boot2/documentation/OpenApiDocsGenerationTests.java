@@ -0,0 +1,47 @@
+package com.example.boot2.documentation;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Generates the OpenAPI documentation from the controllers, using springdoc.
+ * When 'openapi.output-dir' is set (by the 'generateOpenApiDocs' task) the documents are
+ * written there, to be served as is by StaticApiDocsController.
+ * The servers are removed, as springdoc takes these from the (test) request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OpenApiDocsGenerationTests {
+
+  @Test
+  void testGenerateOpenApiDocs(@Autowired MockMvc mvc) throws Exception {
+    var response = mvc.perform(get("/api-docs")).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    var openApi = (ObjectNode) new ObjectMapper().readTree(response);
+    openApi.remove("servers");
+    assertTrue(openApi.has("paths"));
+    assertTrue(openApi.get("paths").has("/status/{userIdentifier}"));
+    assertTrue(openApi.get("paths").has("/email/{emailAddress}"));
+
+    var outputDirectory = System.getProperty("openapi.output-dir");
+    if (outputDirectory != null) {
+      var directory = Files.createDirectories(Path.of(outputDirectory));
+      new ObjectMapper().writerWithDefaultPrettyPrinter()
+          .writeValue(directory.resolve("api-docs.json").toFile(), openApi);
+      new YAMLMapper().writeValue(directory.resolve("api-docs.yaml").toFile(), openApi);
+    }
+  }
+}
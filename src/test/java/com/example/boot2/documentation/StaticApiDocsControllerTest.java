@@ -0,0 +1,41 @@
+package com.example.boot2.documentation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+
+class StaticApiDocsControllerTest {
+
+  private final byte[] json = "{\"openapi\":\"3.0.1\"}".getBytes(StandardCharsets.UTF_8);
+
+  private final byte[] yaml = "openapi: 3.0.1".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void testServesGeneratedDocs() {
+    var underTest =
+        new StaticApiDocsController(new ByteArrayResource(json), new ByteArrayResource(yaml));
+
+    var jsonResponse = underTest.json();
+    assertEquals(MediaType.APPLICATION_JSON, jsonResponse.getHeaders().getContentType());
+    assertArrayEquals(json, jsonResponse.getBody());
+
+    var yamlResponse = underTest.yaml();
+    assertEquals(MediaType.parseMediaType(StaticApiDocsController.OPENAPI_YAML_VALUE),
+        yamlResponse.getHeaders().getContentType());
+    assertArrayEquals(yaml, yamlResponse.getBody());
+  }
+
+  @Test
+  void testMissingGeneratedDocs() {
+    var missing = new ClassPathResource("openapi/missing.json");
+    var yamlResource = new ByteArrayResource(yaml);
+    assertThrows(IllegalStateException.class,
+        () -> new StaticApiDocsController(missing, yamlResource));
+  }
+}
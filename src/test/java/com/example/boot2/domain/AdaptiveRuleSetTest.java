@@ -0,0 +1,101 @@
+package com.example.boot2.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRuleSetTest {
+
+  private final AtomicInteger expensiveCalls = new AtomicInteger();
+
+  private final AdaptiveRuleSet underTest = new AdaptiveRuleSet("test", 10, List.of(
+      new AdaptiveRuleSet.Rule("expensive", value -> {
+        expensiveCalls.incrementAndGet();
+        return value.matches("[a-zA-Z ]*");
+      }),
+      new AdaptiveRuleSet.Rule("doesNotContainX", value -> !value.contains("X"))));
+
+  @Test
+  void testSameResultsAsFixedOrder() {
+    for (int i = 0; i < 100; i++) {
+      assertTrue(underTest.test("Steve"));
+      assertFalse(underTest.test("SteveX"));
+      assertFalse(underTest.test("Steve!"));
+    }
+  }
+
+  @Test
+  void testRejectingRuleMovesToTheFront() {
+    assertEquals(List.of("expensive", "doesNotContainX"), underTest.evaluationOrder());
+
+    for (int i = 0; i < 100; i++) {
+      underTest.test("SteveX");
+    }
+    assertEquals(List.of("doesNotContainX", "expensive"), underTest.evaluationOrder());
+
+    //Once reordered the expensive rule is no longer run for values the cheap rule rejects.
+    expensiveCalls.set(0);
+    for (int i = 0; i < 9; i++) {
+      assertFalse(underTest.test("SteveX"));
+    }
+    assertEquals(0, expensiveCalls.get());
+  }
+
+  @Test
+  void testWithoutStatisticsRecordsNothing() {
+    var withoutStatistics = underTest.withoutStatistics();
+    for (int i = 0; i < 100; i++) {
+      assertTrue(withoutStatistics.test("Steve"));
+      assertFalse(withoutStatistics.test("SteveX"));
+    }
+
+    assertEquals(List.of("expensive", "doesNotContainX"), underTest.evaluationOrder());
+    assertTrue(underTest.statistics().stream().allMatch(rule -> rule.evaluations() == 0));
+  }
+
+  @Test
+  void testEvaluationsAreCountedPerThread() throws InterruptedException {
+    //Nine evaluations on each of two threads, neither thread reaches the reorder interval.
+    var other = new Thread(() -> {
+      for (int i = 0; i < 9; i++) {
+        underTest.test("SteveX");
+      }
+    });
+    other.start();
+    other.join();
+    for (int i = 0; i < 9; i++) {
+      underTest.test("SteveX");
+    }
+    assertEquals(List.of("expensive", "doesNotContainX"), underTest.evaluationOrder());
+
+    underTest.test("SteveX");
+    assertEquals(List.of("doesNotContainX", "expensive"), underTest.evaluationOrder());
+  }
+
+  @Test
+  void testStatistics() {
+    underTest.test("Steve");
+    underTest.test("Steve!");
+
+    var statistics = underTest.statistics();
+    assertEquals("expensive", statistics.get(0).name());
+    assertEquals(2, statistics.get(0).evaluations());
+    assertEquals(1, statistics.get(0).rejections());
+    assertEquals(0.5, statistics.get(0).rejectionRate());
+    assertEquals(1, statistics.get(1).evaluations());
+    assertEquals(0, statistics.get(1).rejections());
+  }
+
+  @Test
+  void testInvalidReorderInterval() {
+    var rules = List.<AdaptiveRuleSet.Rule>of();
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new AdaptiveRuleSet("test", 0, rules));
+    assertEquals("reorder interval must be greater than 0", exception.getMessage());
+  }
+}
@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Optional;
 import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullSource;
@@ -15,7 +17,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 class UserIdentifierValidatorTest {
 
   private final UserIdentifierValidator underTest =
-      new ValidatorConfiguration().productionUserIdentifierValidator();
+      new ValidatorConfiguration().productionUserIdentifierValidator(Optional.empty());
 
   private final Consumer<Status> assertFailsBusinessLogic = result -> {
     assertFalse(result.acceptable());
@@ -49,4 +51,14 @@ class UserIdentifierValidatorTest {
   void testNullAndBlankContent(String toBeValidated) {
     assertFailsBusinessLogic.accept(underTest.apply(toBeValidated));
   }
+
+  @Test
+  void testConfirmationHasFinalSay() {
+    var confirmed = new Status(false, Optional.of("Fails Confirmation"));
+    var withConfirmation = new UserIdentifierValidator(underTest.delegateValidator(),
+        (userIdentifier, status) -> status.acceptable() ? confirmed : status);
+
+    assertEquals(confirmed, withConfirmation.apply("Steve"));
+    assertFailsBusinessLogic.accept(withConfirmation.apply("SteveX"));
+  }
 }
@@ -0,0 +1,56 @@
+package com.example.boot2.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  private final CircuitBreaker underTest =
+      new CircuitBreaker(0.5, 4, Duration.ofSeconds(5), now::get);
+
+  @Test
+  void testOpensOnFailures() {
+    assertTrue(underTest.tryAcquire());
+    underTest.record(true);
+    assertTrue(underTest.tryAcquire());
+    underTest.record(false);
+    assertEquals(CircuitBreaker.State.OPEN, underTest.state());
+    assertFalse(underTest.tryAcquire());
+  }
+
+  @Test
+  void testHalfOpenTrialCloses() {
+    underTest.record(false);
+    underTest.record(false);
+    assertFalse(underTest.tryAcquire());
+
+    now.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertTrue(underTest.tryAcquire());
+    //Only the one trial call.
+    assertFalse(underTest.tryAcquire());
+    underTest.record(true);
+
+    assertEquals(CircuitBreaker.State.CLOSED, underTest.state());
+    assertTrue(underTest.tryAcquire());
+  }
+
+  @Test
+  void testHalfOpenTrialFails() {
+    underTest.record(false);
+    underTest.record(false);
+    now.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertTrue(underTest.tryAcquire());
+    underTest.record(false);
+
+    assertEquals(CircuitBreaker.State.OPEN, underTest.state());
+    now.addAndGet(Duration.ofSeconds(4).toNanos());
+    assertFalse(underTest.tryAcquire());
+  }
+}
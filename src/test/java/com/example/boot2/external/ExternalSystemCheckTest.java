@@ -0,0 +1,82 @@
+package com.example.boot2.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.example.boot2.ExternalSystem;
+import com.example.boot2.domain.Status;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ExternalSystemCheckTest {
+
+  private final Status localValid = new Status(true, Optional.empty());
+
+  private final Status localInvalid = new Status(false, Optional.of("Fails Local Check"));
+
+  private final Status externalInvalid = new Status(false, Optional.of("Fails External Check"));
+
+  private final Function<String, Status> localValidator =
+      value -> value.contains("X") ? localInvalid : localValid;
+
+  private final AtomicInteger externalCalls = new AtomicInteger();
+
+  private CompletableFuture<Status> externalAnswer;
+
+  private final ExternalSystemClient client = new ExternalSystemClient(new ExternalSystem() {
+    @Override
+    public String getExternalSystemName() {
+      return "Check";
+    }
+
+    @Override
+    public CompletableFuture<Status> call(final String value) {
+      externalCalls.incrementAndGet();
+      return externalAnswer;
+    }
+  }, Executors.newSingleThreadScheduledExecutor(),
+      new CircuitBreaker(0.5, 4, Duration.ofHours(1)),
+      Duration.ofMillis(100), Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+  private final ExternalSystemCheck underTest = new ExternalSystemCheck(client);
+
+  @AfterEach
+  void closeClient() {
+    client.close();
+  }
+
+  @Test
+  void testLocalRejectionNotSentToExternalSystem() {
+    assertSame(localInvalid, check("SteveX"));
+    assertEquals(0, externalCalls.get());
+  }
+
+  @Test
+  void testExternalSystemHasFinalSay() {
+    externalAnswer = CompletableFuture.completedFuture(externalInvalid);
+    assertSame(externalInvalid, check("Steve"));
+    assertEquals(1, externalCalls.get());
+  }
+
+  @Test
+  void testLocalVerdictWhenExternalSystemFails() {
+    externalAnswer = CompletableFuture.failedFuture(new IllegalStateException("failed"));
+    assertSame(localValid, check("Steve"));
+  }
+
+  @Test
+  void testLocalVerdictWhenExternalSystemTimesOut() {
+    externalAnswer = new CompletableFuture<>();
+    assertSame(localValid, check("Steve"));
+  }
+
+  private Status check(final String value) {
+    return underTest.apply(value, localValidator.apply(value));
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.boot2.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.boot2.ExternalSystem;
+import com.example.boot2.LocalExternalSystem;
+import com.example.boot2.domain.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class ExternalSystemClientTest {
+
+  private final Logger logger = LoggerFactory.getLogger(ExternalSystemClientTest.class);
+
+  private final Status ok = new Status(true, Optional.empty());
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final List<ExternalSystemClient> clients = new ArrayList<>();
+
+  @AfterEach
+  void closeClients() {
+    clients.forEach(ExternalSystemClient::close);
+  }
+
+  @Test
+  void testHedgedCallAnswers() throws Exception {
+    var externalSystem = new ScriptedExternalSystem(
+        new CompletableFuture<>(), CompletableFuture.completedFuture(ok));
+    var underTest = client(externalSystem, Duration.ofSeconds(5), Duration.ofMillis(10));
+
+    assertEquals(ok, underTest.call("value").get(1, TimeUnit.SECONDS));
+    assertEquals(2, externalSystem.calls);
+    assertEquals(1.0, meterRegistry.get("external.hedges").functionCounter().count());
+  }
+
+  @Test
+  void testTimeout() {
+    var externalSystem = new ScriptedExternalSystem(
+        new CompletableFuture<>(), new CompletableFuture<>());
+    var underTest = client(externalSystem, Duration.ofMillis(50), Duration.ofMillis(10));
+
+    var exception = assertThrows(ExecutionException.class,
+        () -> underTest.call("value").get(1, TimeUnit.SECONDS));
+    assertInstanceOf(TimeoutException.class, exception.getCause());
+    //The timeout is counted just after the future fails, so may not be counted yet.
+    var timeouts = meterRegistry.get("external.calls").tag("outcome", "timeout")
+        .functionCounter();
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (timeouts.count() == 0.0 && System.nanoTime() - deadline < 0) {
+      Thread.onSpinWait();
+    }
+    assertEquals(1.0, timeouts.count());
+  }
+
+  @Test
+  void testFailureBeforeHedge() {
+    var externalSystem = new ScriptedExternalSystem(
+        CompletableFuture.failedFuture(new IllegalStateException("failed")));
+    var underTest = client(externalSystem, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+    var exception = assertThrows(ExecutionException.class,
+        () -> underTest.call("value").get(1, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+    assertEquals(1, externalSystem.calls);
+  }
+
+  @Test
+  void testCircuitOpens() {
+    var failed = CompletableFuture.<Status>failedFuture(new IllegalStateException("failed"));
+    var externalSystem = new ScriptedExternalSystem(failed, failed);
+    var underTest = client(externalSystem, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+    underTest.call("value");
+    underTest.call("value");
+    var exception = assertThrows(ExecutionException.class,
+        () -> underTest.call("value").get(1, TimeUnit.SECONDS));
+    assertInstanceOf(ExternalSystemUnavailableException.class, exception.getCause());
+    assertEquals(2, externalSystem.calls);
+  }
+
+  /**
+   * Shows hedging cuts the tail latency, against a stand-in with a long tail.
+   * It takes a few seconds, so it is tagged 'benchmark' and only run by './gradlew benchmark'.
+   */
+  @Test
+  @Tag("benchmark")
+  void testHedgingReducesTailLatency() throws Exception {
+    var withoutHedgingScheduler = Executors.newSingleThreadScheduledExecutor();
+    var withHedgingScheduler = Executors.newSingleThreadScheduledExecutor();
+    try (var externalSystem = new LocalExternalSystem(Duration.ofMillis(2),
+        Duration.ofMillis(60), 0.0, 0.0)) {
+      var timeout = Duration.ofSeconds(2);
+      var withoutHedging = latencies(new ExternalSystemClient(externalSystem,
+          withoutHedgingScheduler, breaker(), timeout, timeout, timeout));
+      var withHedging = latencies(new ExternalSystemClient(externalSystem,
+          withHedgingScheduler, breaker(), timeout, Duration.ofMillis(10), Duration.ofMillis(1)));
+
+      var report = String.format("%nExternal system latency (ms)%n%-16s %8s %8s %8s%n",
+          "", "p50", "p95", "p99")
+          + String.format("%-16s %8.1f %8.1f %8.1f%n", "without hedging",
+          percentile(withoutHedging, 0.50), percentile(withoutHedging, 0.95),
+          percentile(withoutHedging, 0.99))
+          + String.format("%-16s %8.1f %8.1f %8.1f%n", "with hedging",
+          percentile(withHedging, 0.50), percentile(withHedging, 0.95),
+          percentile(withHedging, 0.99));
+      logger.info("{}", report);
+      assertTrue(percentile(withHedging, 0.99) < percentile(withoutHedging, 0.99), report);
+    } finally {
+      withoutHedgingScheduler.shutdownNow();
+      withHedgingScheduler.shutdownNow();
+    }
+  }
+
+  private ExternalSystemClient client(final ExternalSystem externalSystem,
+                                      final Duration timeout, final Duration hedgeDelay) {
+    var client = new ExternalSystemClient(externalSystem,
+        Executors.newSingleThreadScheduledExecutor(), breaker(), timeout, hedgeDelay,
+        hedgeDelay);
+    client.bindTo(meterRegistry);
+    clients.add(client);
+    return client;
+  }
+
+  private static CircuitBreaker breaker() {
+    return new CircuitBreaker(0.5, 4, Duration.ofHours(1));
+  }
+
+  private static List<Double> latencies(final ExternalSystemClient client) throws Exception {
+    try (client) {
+      List<CompletableFuture<Double>> calls = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        var startTime = System.nanoTime();
+        calls.add(client.call("value").thenApply(status -> (System.nanoTime() - startTime)
+            / 1e6));
+        //Spread the calls out a little, the p95 is learnt from the earlier ones.
+        Thread.sleep(1);
+      }
+      List<Double> latencies = new ArrayList<>();
+      for (CompletableFuture<Double> call : calls) {
+        latencies.add(call.get());
+      }
+      latencies.sort(Double::compare);
+      return latencies;
+    }
+  }
+
+  private static double percentile(final List<Double> sorted, final double percentile) {
+    return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+  }
+
+  /**
+   * Answers each call with the next future, repeating the last one.
+   */
+  private static final class ScriptedExternalSystem implements ExternalSystem {
+
+    private final Deque<CompletableFuture<Status>> answers;
+    private int calls;
+
+    @SafeVarargs
+    private ScriptedExternalSystem(final CompletableFuture<Status>... answers) {
+      this.answers = new ArrayDeque<>(List.of(answers));
+    }
+
+    @Override
+    public String getExternalSystemName() {
+      return "Scripted";
+    }
+
+    @Override
+    public synchronized CompletableFuture<Status> call(final String value) {
+      calls++;
+      return answers.size() > 1 ? answers.poll() : answers.peek();
+    }
+  }
+}
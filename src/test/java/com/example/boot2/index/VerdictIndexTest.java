@@ -0,0 +1,109 @@
+package com.example.boot2.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.boot2.domain.Status;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VerdictIndexTest {
+
+  private static final int IDENTIFIERS = 10000;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testAllKnownIdentifiersFound() throws Exception {
+    var path = directory.resolve("verdicts.idx");
+    var writer = new VerdictIndexWriter();
+    IntStream.range(0, IDENTIFIERS).forEach(i -> writer.add("user" + i, i % 3 != 0));
+    writer.write(path);
+
+    var underTest = VerdictIndex.open(path);
+    assertEquals(IDENTIFIERS, underTest.size());
+    for (int i = 0; i < IDENTIFIERS; i++) {
+      assertEquals(i % 3 != 0 ? VerdictIndex.Verdict.ACCEPTABLE
+          : VerdictIndex.Verdict.UNACCEPTABLE, underTest.lookup("user" + i));
+    }
+    for (int i = 0; i < IDENTIFIERS; i++) {
+      assertEquals(VerdictIndex.Verdict.UNKNOWN, underTest.lookup("other" + i));
+    }
+    assertEquals(VerdictIndex.Verdict.UNKNOWN, underTest.lookup(null));
+  }
+
+  @Test
+  void testEmptyIndex() throws Exception {
+    var path = directory.resolve("verdicts.idx");
+    new VerdictIndexWriter().write(path);
+
+    var underTest = VerdictIndex.open(path);
+    assertEquals(0, underTest.size());
+    assertEquals(VerdictIndex.Verdict.UNKNOWN, underTest.lookup("user1"));
+  }
+
+  @Test
+  void testDuplicateIdentifier() {
+    var writer = new VerdictIndexWriter().add("user1", true).add("user1", false);
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> writer.write(directory.resolve("verdicts.idx")));
+    assertEquals("duplicate identifier (or fingerprint collision) in the input",
+        exception.getMessage());
+  }
+
+  @Test
+  void testNotAnIndex() throws Exception {
+    var path = Files.writeString(directory.resolve("verdicts.idx"), "user1\ttrue\n");
+    assertThrows(IllegalArgumentException.class, () -> VerdictIndex.open(path));
+  }
+
+  @Test
+  void testBuiltFromVerdictsFile() throws Exception {
+    var input = Files.writeString(directory.resolve("verdicts.tsv"),
+        "SteveLimb\ttrue\nSteveXLimb\tfalse\n\n");
+    var path = directory.resolve("verdicts.idx");
+    VerdictIndexWriter.main(new String[] {input.toString(), path.toString()});
+
+    var underTest = VerdictIndex.open(path);
+    assertEquals(VerdictIndex.Verdict.ACCEPTABLE, underTest.lookup("SteveLimb"));
+    assertEquals(VerdictIndex.Verdict.UNACCEPTABLE, underTest.lookup("SteveXLimb"));
+  }
+
+  @Test
+  void testHotSwap() throws Exception {
+    var path = directory.resolve("verdicts.idx");
+    var acceptable = new Status(true, Optional.empty());
+    var unacceptable = new Status(false, Optional.of("Fails Business Logic Check"));
+    var fromRules = new Status(false, Optional.of("From Rules"));
+
+    try (var holder = VerdictIndexHolder.polling(path, Duration.ofHours(1))) {
+      var underTest = new IndexedValidator(holder, value -> fromRules, acceptable,
+          unacceptable);
+      //No file yet, so everything goes to the rules.
+      assertEquals(fromRules, underTest.apply("user1"));
+
+      new VerdictIndexWriter().add("user1", true).write(path);
+      holder.refresh();
+      assertEquals(acceptable, underTest.apply("user1"));
+      assertEquals(fromRules, underTest.apply("user2"));
+
+      new VerdictIndexWriter().add("user1", false).add("user2", true).write(path);
+      holder.refresh();
+      assertEquals(unacceptable, underTest.apply("user1"));
+      assertEquals(acceptable, underTest.apply("user2"));
+
+      //A broken file does not replace a good index.
+      Files.move(Files.writeString(directory.resolve("broken.idx"), "broken"), path,
+          StandardCopyOption.REPLACE_EXISTING);
+      holder.refresh();
+      assertEquals(acceptable, underTest.apply("user2"));
+    }
+  }
+}
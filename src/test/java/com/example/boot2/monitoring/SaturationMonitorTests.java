@@ -0,0 +1,41 @@
+package com.example.boot2.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * This is designed to check the saturation metrics are published and updated by requests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SaturationMonitorTests {
+
+  @Test
+  void testRequestUpdatesSaturationMetrics(@Autowired MockMvc mvc,
+                                           @Autowired MeterRegistry meterRegistry)
+      throws Exception {
+    var admission = meterRegistry.get("boot2.requests.admission").timer();
+    var before = admission.count();
+
+    mvc.perform(get("/status/SteveLimb")).andExpect(status().isOk());
+
+    assertEquals(before + 1, admission.count());
+    assertEquals(0.0, meterRegistry.get("boot2.requests.inflight").gauge().value());
+    assertEquals(0.0, meterRegistry.get("boot2.padding.depth").gauge().value());
+  }
+
+  @Test
+  void testWorkerPoolMetricsWithoutTomcat(@Autowired MeterRegistry meterRegistry) {
+    //Mock MVC does not start Tomcat, so there is no worker pool to report on.
+    assertTrue(Double.isNaN(meterRegistry.get("boot2.workers.utilization").gauge().value()));
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.boot2.priority;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.security.auth.x500.X500Principal;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class PriorityFilterTest {
+
+  //One request at a time per endpoint and no queueing, so a second request is turned away.
+  private final PriorityScheduler emailScheduler = scheduler("email");
+  private final PriorityScheduler statusScheduler = scheduler("status");
+
+  private final PriorityProperties properties = new PriorityProperties(
+      new PriorityProperties.EndpointProperties(1), new PriorityProperties.EndpointProperties(1),
+      "batch", Map.of(
+          "interactive", new PriorityProperties.TierProperties(8, 0, Duration.ofMillis(10),
+              List.of("checkout-service")),
+          "batch", new PriorityProperties.TierProperties(1, 0, Duration.ofMillis(10),
+              List.of())));
+
+  private final PriorityFilter underTest =
+      new PriorityFilter(emailScheduler, statusScheduler, properties,
+          new ObjectMapper().findAndRegisterModules());
+
+  @Test
+  void testTierFromCertificateCommonName() {
+    assertEquals("interactive",
+        underTest.tier(request("/status/SteveLimb", "CN=checkout-service,O=Example")));
+  }
+
+  @Test
+  void testDefaultTier() {
+    assertEquals("batch", underTest.tier(request("/status/SteveLimb", null)));
+    assertEquals("batch",
+        underTest.tier(request("/status/SteveLimb", "CN=unknown-service,O=Example")));
+    assertEquals("batch", underTest.tier(request("/status/SteveLimb", "O=Example")));
+  }
+
+  @Test
+  void testRejectedWhenTierQueueFull() throws Exception {
+    var response = new MockHttpServletResponse();
+    var chain = new MockFilterChain();
+
+    try (var ignored = statusScheduler.admit("batch")) {
+      underTest.doFilter(request("/status/SteveLimb", null), response, chain);
+    }
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+    assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    assertEquals("{\"acceptable\":false,"
+            + "\"reasonUnacceptable\":\"Too many requests for batch tier, try again later\"}",
+        response.getContentAsString());
+    assertNull(chain.getRequest());
+  }
+
+  @Test
+  void testEndpointsScheduledSeparately() throws Exception {
+    var response = new MockHttpServletResponse();
+    var chain = new MockFilterChain();
+
+    try (var ignored = statusScheduler.admit("batch")) {
+      underTest.doFilter(request("/email/abc@mail.com", null), response, chain);
+    }
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertNotNull(chain.getRequest());
+    assertEquals(0, emailScheduler.active());
+  }
+
+  private static PriorityScheduler scheduler(final String endpoint) {
+    return new PriorityScheduler(endpoint, 1, List.of(
+        new PriorityScheduler.Tier("interactive", 8, 0, Duration.ofMillis(10)),
+        new PriorityScheduler.Tier("batch", 1, 0, Duration.ofMillis(10))));
+  }
+
+  private static MockHttpServletRequest request(final String path, final String subject) {
+    var request = new MockHttpServletRequest("GET", path);
+    if (subject != null) {
+      var certificate = mock(X509Certificate.class);
+      when(certificate.getSubjectX500Principal()).thenReturn(new X500Principal(subject));
+      request.setAttribute(PriorityFilter.CERTIFICATES_ATTRIBUTE,
+          new X509Certificate[] {certificate});
+    }
+    return request;
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.boot2.priority;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PrioritySchedulerTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  private final PriorityScheduler underTest = new PriorityScheduler("status", 1, List.of(
+      new PriorityScheduler.Tier("interactive", 3, 4, Duration.ofSeconds(10)),
+      new PriorityScheduler.Tier("batch", 1, 4, Duration.ofSeconds(10))));
+
+  @AfterEach
+  void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testWeightedTurns() throws Exception {
+    List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+    List<Future<?>> requests = new ArrayList<>();
+
+    try (var ignored = underTest.admit("interactive")) {
+      for (int i = 0; i < 4; i++) {
+        requests.add(executor.submit(() -> request("batch", admitted)));
+        requests.add(executor.submit(() -> request("interactive", admitted)));
+      }
+      while (underTest.queued("batch") + underTest.queued("interactive") < 8) {
+        Thread.sleep(1);
+      }
+    }
+    for (Future<?> request : requests) {
+      request.get();
+    }
+
+    //Three interactive turns for each batch turn, until the interactive queue empties.
+    assertEquals(List.of("interactive", "interactive", "batch", "interactive",
+        "interactive", "batch", "batch", "batch"), admitted);
+    assertEquals(0, underTest.active());
+  }
+
+  @Test
+  void testQueueFull() throws Exception {
+    var scheduler = new PriorityScheduler("status", 1, List.of(
+        new PriorityScheduler.Tier("batch", 1, 0, Duration.ofSeconds(10))));
+
+    try (var ignored = scheduler.admit("batch")) {
+      var exception = assertThrows(PriorityRejectedException.class, () -> scheduler.admit("batch"));
+      assertEquals("Too many requests for batch tier, try again later", exception.getMessage());
+    }
+    scheduler.admit("batch").close();
+  }
+
+  @Test
+  void testTimeout() {
+    var scheduler = new PriorityScheduler("status", 1, List.of(
+        new PriorityScheduler.Tier("batch", 1, 1, Duration.ofMillis(10))));
+
+    try (var ignored = scheduler.admit("batch")) {
+      assertThrows(PriorityRejectedException.class, () -> scheduler.admit("batch"));
+      assertEquals(0, scheduler.queued("batch"));
+    }
+  }
+
+  @Test
+  void testInvalidTier() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new PriorityScheduler.Tier("batch", 0, 1, Duration.ofMillis(10)));
+    assertEquals("weight must be greater than 0 and max queued must not be negative",
+        exception.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> underTest.admit("unknown"));
+  }
+
+  private void request(final String tier, final List<String> admitted) {
+    try (var ignored = underTest.admit(tier)) {
+      admitted.add(tier);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.boot2.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.boot2.util.Delay;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Function;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class FlightRecorderEndpointTest {
+
+  private final FlightRecorderEndpoint underTest = new FlightRecorderEndpoint(
+      Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1), 10);
+
+  @Test
+  void testDumpWithoutRecording() {
+    assertNull(underTest.dump());
+  }
+
+  @Test
+  void testRecordingCapturesPaddingEvents() throws Exception {
+    try {
+      assertEquals(RecordingState.RUNNING, underTest.start(null, null).get("state"));
+
+      new Delay<>(1000000, Function.identity()).apply("AnyText");
+
+      var dump = Path.of((String) underTest.dump().get("path"));
+      var events = RecordingFile.readAllEvents(dump);
+      assertTrue(events.stream()
+          .anyMatch(event -> event.getEventType().getName().equals("com.example.boot2.Padding")));
+    } finally {
+      assertEquals(RecordingState.CLOSED, underTest.discard().get("state"));
+    }
+  }
+
+  @Test
+  void testSecretBearingEventsNotRecorded() throws Exception {
+    try {
+      underTest.start(null, null);
+      var events = RecordingFile.readAllEvents(Path.of((String) underTest.dump().get("path")));
+      assertFalse(events.stream().map(RecordedEvent::getEventType).anyMatch(type ->
+          type.getName().equals("jdk.InitialEnvironmentVariable")
+              || type.getName().equals("jdk.InitialSystemProperty")
+              || type.getName().equals("jdk.JVMInformation")));
+    } finally {
+      underTest.discard();
+    }
+  }
+
+  @Test
+  void testStopKeepsRecordingForFinalDump() throws Exception {
+    try {
+      underTest.start(null, null);
+      new Delay<>(1000000, Function.identity()).apply("AnyText");
+
+      assertEquals(RecordingState.STOPPED, underTest.stop().get("state"));
+      var dump = Path.of((String) underTest.dump().get("path"));
+      assertTrue(RecordingFile.readAllEvents(dump).stream()
+          .anyMatch(event -> event.getEventType().getName().equals("com.example.boot2.Padding")));
+    } finally {
+      underTest.discard();
+    }
+  }
+
+  @Test
+  void testStartAfterStopStartsNewRecording() {
+    try {
+      underTest.start(null, null);
+      underTest.stop();
+      assertEquals(RecordingState.RUNNING, underTest.start(null, null).get("state"));
+    } finally {
+      underTest.discard();
+    }
+  }
+
+  @Test
+  void testDiscardDeletesDump() {
+    underTest.start(null, null);
+    var dump = Path.of((String) underTest.dump().get("path"));
+    assertTrue(Files.exists(dump));
+
+    assertEquals(RecordingState.CLOSED, underTest.discard().get("state"));
+    assertFalse(Files.exists(dump));
+    assertNull(underTest.dump());
+  }
+
+  @Test
+  void testCloseStopsRecordingAndDeletesDump() {
+    underTest.start(null, null);
+    var dump = Path.of((String) underTest.dump().get("path"));
+
+    underTest.close();
+    assertFalse(Files.exists(dump));
+    assertEquals(RecordingState.CLOSED, underTest.stop().get("state"));
+  }
+}
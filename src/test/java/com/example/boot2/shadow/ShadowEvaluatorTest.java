@@ -0,0 +1,92 @@
+package com.example.boot2.shadow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.boot2.domain.AdaptiveRuleSet;
+import com.example.boot2.domain.Status;
+import com.example.boot2.domain.ValueValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ShadowEvaluatorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final List<Runnable> scheduled = new ArrayList<>();
+
+  //Primary that rejects consecutive dots.
+  private final ValueValidator primary = new ValueValidator(value -> !value.contains(".."),
+      () -> new Status(true, Optional.empty()),
+      () -> new Status(false, Optional.empty()));
+
+  //Candidate that only accepts '.com' addresses.
+  private final ValueValidator candidate = new ValueValidator(value -> value.endsWith(".com"),
+      () -> new Status(true, Optional.empty()),
+      () -> new Status(false, Optional.empty()));
+
+  @Test
+  void testDisagreementsCounted() {
+    var underTest = new ShadowEvaluator("email", primary, candidate, 1.0,
+        scheduled::add, meterRegistry);
+
+    for (String email : List.of("abc@mail.com", "abc@mail.org", "abc..def@mail.com")) {
+      underTest.accept(email, primary.validate(email).get());
+    }
+
+    //Nothing is done on the calling thread.
+    assertEquals(0.0, meterRegistry.get("shadow.evaluations").counter().count());
+    scheduled.forEach(Runnable::run);
+
+    assertEquals(3.0, meterRegistry.get("shadow.evaluations").counter().count());
+    assertEquals(1.0, meterRegistry.get("shadow.disagreements")
+        .tag("candidate", "rejected").counter().count());
+    assertEquals(1.0, meterRegistry.get("shadow.disagreements")
+        .tag("candidate", "accepted").counter().count());
+    assertEquals(3, meterRegistry.get("shadow.latency")
+        .tag("validator", "primary").timer().count());
+    assertEquals(3, meterRegistry.get("shadow.latency")
+        .tag("validator", "candidate").timer().count());
+  }
+
+  @Test
+  void testPrimaryTimedWithoutRuleStatistics() {
+    var rules = new AdaptiveRuleSet("test", 1000,
+        List.of(new AdaptiveRuleSet.Rule("noDoubleDots", value -> !value.contains(".."))));
+    var adaptivePrimary = new ValueValidator(rules,
+        () -> new Status(true, Optional.empty()),
+        () -> new Status(false, Optional.empty()));
+    var underTest = new ShadowEvaluator("email", adaptivePrimary, candidate, 1.0,
+        scheduled::add, meterRegistry);
+
+    underTest.accept("abc@mail.com", new Status(true, Optional.empty()));
+    scheduled.forEach(Runnable::run);
+
+    assertEquals(1, meterRegistry.get("shadow.latency")
+        .tag("validator", "primary").timer().count());
+    assertEquals(0, rules.statistics().get(0).evaluations());
+  }
+
+  @Test
+  void testNothingSampled() {
+    var underTest = new ShadowEvaluator("email", primary, candidate, 0.0,
+        scheduled::add, meterRegistry);
+
+    underTest.accept("abc@mail.com", primary.validate("abc@mail.com").get());
+    assertEquals(0, scheduled.size());
+  }
+
+  @Test
+  void testCloseStopsExecutor() {
+    var executor = Executors.newSingleThreadExecutor();
+    var underTest = new ShadowEvaluation(Map.of(), executor);
+
+    underTest.close();
+    assertTrue(executor.isShutdown());
+  }
+}
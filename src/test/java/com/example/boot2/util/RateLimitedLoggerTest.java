@@ -0,0 +1,47 @@
+package com.example.boot2.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+class RateLimitedLoggerTest {
+
+  private final Logger logger = mock(Logger.class);
+
+  @Test
+  void testMessagesOverLimitAreSuppressed() {
+    when(logger.isErrorEnabled()).thenReturn(true);
+    var underTest = new RateLimitedLogger(logger, Duration.ofHours(1), 3);
+
+    for (int i = 0; i < 10; i++) {
+      underTest.error("WebService Error {}", 404);
+    }
+    verify(logger, times(3)).error(anyString(), (Object[]) any());
+  }
+
+  @Test
+  void testNothingLoggedWhenLevelDisabled() {
+    var underTest = new RateLimitedLogger(logger, Duration.ofHours(1), 3);
+
+    underTest.warn("Rejected {}", "value");
+    verify(logger, never()).warn(anyString(), (Object[]) any());
+  }
+
+  @Test
+  void testInvalidMessagesPerPeriod() {
+    var period = Duration.ofSeconds(1);
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> new RateLimitedLogger(logger, period, 0));
+    assertEquals("messages per period must be greater than 0", exception.getMessage());
+  }
+}